@@ -0,0 +1,121 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class DatabaseBenchmark {
+    private static final int GRADUATES_PER_NOTIFY = 1_000;
+
+    private int cursor;
+
+    private int next() {
+        cursor = (cursor + 1) & (DatabaseState.SAMPLES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public void update(DatabaseState state) {
+        int i = next();
+        state.database.update(state.ids[i], state.points[i]);
+    }
+
+    @Benchmark
+    public boolean studentExistsByEmail(DatabaseState state) {
+        return state.database.studentExists(state.emails[next()]);
+    }
+
+    @Benchmark
+    public boolean studentExistsById(DatabaseState state) {
+        return state.database.studentExists(state.ids[next()]);
+    }
+
+    @Benchmark
+    public List<String> mostPopularCourse(DatabaseState state) {
+        return state.database.getMostPopularCourse();
+    }
+
+    @Benchmark
+    public List<String> leastPopularCourse(DatabaseState state) {
+        return state.database.getLeastPopularCourse();
+    }
+
+    @Benchmark
+    public List<String> mostActiveCourse(DatabaseState state) {
+        return state.database.getMostActiveCourse();
+    }
+
+    @Benchmark
+    public List<String> leastActiveCourse(DatabaseState state) {
+        return state.database.getLeastActiveCourse();
+    }
+
+    @Benchmark
+    public List<String> easiestCourse(DatabaseState state) {
+        return state.database.getEasiestCourse();
+    }
+
+    @Benchmark
+    public List<String> hardestCourse(DatabaseState state) {
+        return state.database.getHardestCourse();
+    }
+
+    @Benchmark
+    public long topLearner(DatabaseState state) {
+        return state.database.getCourse("Java").getTopLearner();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void courseDetails(DatabaseState state, Blackhole blackhole) {
+        Course course = state.database.getCourse("Java");
+        ReportWriter report = new ReportWriter(Writer.nullWriter());
+        course.forEachRanked(0, Long.MAX_VALUE, (id, points) -> report.append(id).append(' ').append(points)
+                .append(' ').appendPercent(points, course.getMinCompletion()).newLine());
+        report.flush();
+        blackhole.consume(report);
+    }
+
+    @Benchmark
+    public void courseDetailsTop100(DatabaseState state, Blackhole blackhole) {
+        Course course = state.database.getCourse("Java");
+        ReportWriter report = new ReportWriter(Writer.nullWriter(), 8192);
+        course.forEachRanked(0, 100, (id, points) -> report.append(id).append(' ').append(points)
+                .append(' ').appendPercent(points, course.getMinCompletion()).newLine());
+        report.flush();
+        blackhole.consume(report);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int doNotify(DatabaseState state, Blackhole blackhole) throws IOException {
+        NotificationOutbox outbox = state.database.getOutbox();
+
+        for (int i = 0; i < GRADUATES_PER_NOTIFY; i++) {
+            outbox.enqueue(state.ids[next()], i & 3);
+        }
+
+        return outbox.dispatchAll(blackhole::consume).getStudents();
+    }
+}
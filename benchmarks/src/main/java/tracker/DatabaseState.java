@@ -0,0 +1,51 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+@State(Scope.Benchmark)
+public class DatabaseState {
+    static final int SAMPLES = 1 << 16;
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    public int students;
+
+    Database database;
+    long[] ids;
+    String[] emails;
+    int[][] points;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new Database(students);
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < students; i++) {
+            database.register(Credentials.valid("First", "Last", email(i)));
+        }
+
+        for (long id = 1; id <= students; id++) {
+            database.update(id, new int[]{random.nextInt(700), random.nextInt(500), random.nextInt(600),
+                    random.nextInt(650)});
+        }
+
+        ids = new long[SAMPLES];
+        emails = new String[SAMPLES];
+        points = new int[SAMPLES][];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            ids[i] = 1 + random.nextInt(students);
+            emails[i] = random.nextBoolean() ? email(random.nextInt(students)) : "missing" + i + "@example.com";
+            points[i] = new int[]{random.nextInt(10), random.nextInt(10), random.nextInt(10), random.nextInt(10)};
+        }
+    }
+
+    private static String email(int i) {
+        return "student" + i + "@example.com";
+    }
+}
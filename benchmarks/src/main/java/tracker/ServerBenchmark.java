@@ -0,0 +1,78 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ServerBenchmark {
+    private static final String ADD_POINTS_PROMPT = "Enter an id and points or 'back' to return:";
+
+    private Socket socket;
+    private BufferedReader in;
+    private Writer out;
+    private SplittableRandom random;
+    private int students;
+
+    @Setup(Level.Trial)
+    public void connect(ServerState state) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), state.server.getPort());
+        socket.setTcpNoDelay(true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        random = new SplittableRandom(System.identityHashCode(this));
+        students = state.students;
+
+        out.write("add points\n");
+        out.flush();
+
+        for (String line = in.readLine(); !ADD_POINTS_PROMPT.equals(line); line = in.readLine()) {
+            if (line == null) {
+                throw new IOException("Server closed the session");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void disconnect() throws IOException {
+        out.write("back\nexit\n");
+        out.flush();
+        socket.close();
+    }
+
+    @Benchmark
+    public String addPoints() throws IOException {
+        out.write((1 + random.nextInt(students)) + " " + random.nextInt(10) + " " + random.nextInt(10) + " "
+                + random.nextInt(10) + " " + random.nextInt(10) + "\n");
+        out.flush();
+        return in.readLine();
+    }
+}
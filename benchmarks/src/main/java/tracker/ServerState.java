@@ -0,0 +1,37 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+@State(Scope.Benchmark)
+public class ServerState {
+    @Param({"100000"})
+    public int students;
+
+    Database database;
+    TrackerServer server;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = new Database(students);
+
+        for (int i = 0; i < students; i++) {
+            database.register(Credentials.valid("First", "Last", "student" + i + "@example.com"));
+        }
+
+        server = new TrackerServer(database, 0);
+        server.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+        database.close();
+    }
+}
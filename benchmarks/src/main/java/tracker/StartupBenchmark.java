@@ -0,0 +1,36 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class StartupBenchmark {
+
+    @Benchmark
+    public int replayLog(StartupState state) throws IOException {
+        return open(state, null);
+    }
+
+    @Benchmark
+    public int loadSnapshot(StartupState state) throws IOException {
+        return open(state, state.snapshotPath);
+    }
+
+    private static int open(StartupState state, Path snapshotPath) throws IOException {
+        state.database = Database.open(state.logPath, WriteAheadLog.Durability.ASYNC, snapshotPath);
+        return state.database.getNumberOfStudents();
+    }
+}
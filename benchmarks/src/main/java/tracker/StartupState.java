@@ -0,0 +1,67 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+public class StartupState {
+    @Param({"100000", "1000000"})
+    public int students;
+
+    Path directory;
+    Path logPath;
+    Path snapshotPath;
+    Database database;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tracker-startup");
+        logPath = directory.resolve("tracker.wal");
+        snapshotPath = directory.resolve("tracker.snapshot");
+
+        try (Database database = Database.open(logPath, WriteAheadLog.Durability.ASYNC)) {
+            for (int i = 0; i < students; i++) {
+                database.register(Credentials.valid("First", "Last", "student" + i + "@example.com"));
+            }
+
+            SplittableRandom random = new SplittableRandom(42);
+
+            for (int i = 0; i < 2 * students; i++) {
+                database.update(1 + random.nextInt(students), new int[]{random.nextInt(10), random.nextInt(10),
+                        random.nextInt(10), random.nextInt(10)});
+            }
+
+            database.snapshot().write(snapshotPath);
+        }
+
+        System.gc();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeDatabase() throws IOException {
+        if (database != null) {
+            database.close();
+            database = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package tracker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+public class ActivityHistory {
+    private final LongSupplier clock;
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray submissions;
+    private final AtomicLongArray points;
+    private final StampedLock gate = new StampedLock();
+
+    public ActivityHistory(LongSupplier clock, long bucketMillis, int buckets) {
+        this.clock = clock;
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.epochs = new AtomicLongArray(buckets);
+        this.submissions = new AtomicLongArray(buckets);
+        this.points = new AtomicLongArray(buckets);
+        reset();
+    }
+
+    public void record(int submissions, int points) {
+        long bucket = clock.getAsLong() / bucketMillis;
+        int slot = (int) (bucket % buckets);
+
+        if (epochs.get(slot) < bucket) {
+            roll(slot, bucket);
+        }
+
+        long stamp = gate.readLock();
+
+        try {
+            if (epochs.get(slot) == bucket) {
+                this.submissions.addAndGet(slot, submissions);
+                this.points.addAndGet(slot, points);
+            }
+        } finally {
+            gate.unlockRead(stamp);
+        }
+    }
+
+    private void roll(int slot, long bucket) {
+        long stamp = gate.writeLock();
+
+        try {
+            if (epochs.get(slot) < bucket) {
+                submissions.set(slot, 0);
+                points.set(slot, 0);
+                epochs.set(slot, bucket);
+            }
+        } finally {
+            gate.unlockWrite(stamp);
+        }
+    }
+
+    public long getSubmissions(long windowMillis) {
+        return sum(submissions, windowMillis);
+    }
+
+    public long getPoints(long windowMillis) {
+        return sum(points, windowMillis);
+    }
+
+    public long getMaxWindowMillis() {
+        return bucketMillis * buckets;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    private long sum(AtomicLongArray values, long windowMillis) {
+        long current = clock.getAsLong() / bucketMillis;
+        long count = Math.min(buckets, Math.max(1, (windowMillis + bucketMillis - 1) / bucketMillis));
+        long total = 0;
+
+        for (long bucket = current; bucket > current - count; bucket--) {
+            int slot = (int) (bucket % buckets);
+
+            if (epochs.get(slot) == bucket) {
+                total += values.get(slot);
+            }
+        }
+
+        return total;
+    }
+
+    public void clear() {
+        long stamp = gate.writeLock();
+
+        try {
+            reset();
+        } finally {
+            gate.unlockWrite(stamp);
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < buckets; i++) {
+            epochs.set(i, -1);
+            submissions.set(i, 0);
+            points.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ActivityReport {
+    private final long windowMillis;
+    private final List<String> courses = new ArrayList<>();
+    private final List<Long> submissions = new ArrayList<>();
+    private final List<Long> points = new ArrayList<>();
+    private final List<String> mostActive = new ArrayList<>();
+    private final List<String> leastActive = new ArrayList<>();
+
+    public ActivityReport(List<Course> courses, long windowMillis) {
+        this.windowMillis = windowMillis;
+
+        for (Course course : courses) {
+            this.courses.add(course.getName());
+            submissions.add(course.getHistory().getSubmissions(windowMillis));
+            points.add(course.getHistory().getPoints(windowMillis));
+        }
+
+        rank();
+    }
+
+    private ActivityReport(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    static ActivityReport merge(List<ActivityReport> reports) {
+        ActivityReport first = reports.get(0);
+        ActivityReport merged = new ActivityReport(first.windowMillis);
+
+        for (int i = 0; i < first.courses.size(); i++) {
+            long totalSubmissions = 0;
+            long totalPoints = 0;
+
+            for (ActivityReport report : reports) {
+                totalSubmissions += report.submissions.get(i);
+                totalPoints += report.points.get(i);
+            }
+
+            merged.courses.add(first.courses.get(i));
+            merged.submissions.add(totalSubmissions);
+            merged.points.add(totalPoints);
+        }
+
+        merged.rank();
+        return merged;
+    }
+
+    private void rank() {
+        long maxActivity = Long.MIN_VALUE;
+        long minActivity = Long.MAX_VALUE;
+
+        for (long activity : submissions) {
+            maxActivity = Math.max(maxActivity, activity);
+            minActivity = Math.min(minActivity, activity);
+        }
+
+        for (int i = 0; i < courses.size(); i++) {
+            long activity = submissions.get(i);
+
+            if (maxActivity != 0 && activity == maxActivity) {
+                mostActive.add(courses.get(i));
+            } else if (minActivity != 0 && activity == minActivity) {
+                leastActive.add(courses.get(i));
+            }
+        }
+    }
+
+    public List<String> getCourses() {
+        return Collections.unmodifiableList(courses);
+    }
+
+    public List<String> getMostActive() {
+        return Collections.unmodifiableList(mostActive);
+    }
+
+    public List<String> getLeastActive() {
+        return Collections.unmodifiableList(leastActive);
+    }
+
+    public long getSubmissions(int course) {
+        return submissions.get(course);
+    }
+
+    public long getPoints(int course) {
+        return points.get(course);
+    }
+
+    public double getSubmissionsPerMinute(int course) {
+        return submissions.get(course) * 60_000.0 / windowMillis;
+    }
+}
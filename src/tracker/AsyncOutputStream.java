@@ -0,0 +1,151 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class AsyncOutputStream extends OutputStream {
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS = 16;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final OutputStream out;
+    private final BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(CHUNKS);
+    private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<>(CHUNKS + 1);
+    private final Thread writer;
+    private final Object drained = new Object();
+    private byte[] chunk = new byte[CHUNK_SIZE];
+    private int count;
+    private long handedOff;
+    private long written;
+    private volatile IOException failure;
+    private boolean closed;
+
+    public AsyncOutputStream(OutputStream out) {
+        this.out = out;
+        this.writer = new Thread(this::writeLoop, "tracker-output-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == chunk.length) {
+            handOff();
+        }
+        chunk[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (count == chunk.length) {
+                handOff();
+            }
+
+            int copied = Math.min(length, chunk.length - count);
+            System.arraycopy(bytes, offset, chunk, count, copied);
+            count += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            handOff();
+        }
+
+        checkFailure();
+    }
+
+    public void drain() throws IOException {
+        flush();
+
+        synchronized (drained) {
+            while (written < handedOff) {
+                try {
+                    drained.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while draining output", e);
+                }
+            }
+        }
+
+        checkFailure();
+    }
+
+    private void handOff() throws IOException {
+        checkFailure();
+
+        try {
+            filled.put(ByteBuffer.wrap(chunk, 0, count));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing output", e);
+        }
+
+        handedOff += 1;
+        byte[] recycled = free.poll();
+        chunk = recycled == null ? new byte[CHUNK_SIZE] : recycled;
+        count = 0;
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                ByteBuffer bytes = filled.take();
+
+                if (bytes == END) {
+                    return;
+                }
+
+                try {
+                    out.write(bytes.array(), 0, bytes.limit());
+                    out.flush();
+                } catch (IOException e) {
+                    failure = e;
+                }
+
+                free.offer(bytes.array());
+
+                synchronized (drained) {
+                    written += 1;
+                    drained.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        drain();
+
+        try {
+            filled.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing output", e);
+        }
+
+        checkFailure();
+    }
+}
@@ -0,0 +1,93 @@
+package tracker;
+
+public class CohortQuery {
+    private static final String ENROLLED = "enrolled:";
+    private static final String GRADUATED = "graduated:";
+    private static final int MAX_DEPTH = 64;
+
+    private final TrackerStore database;
+    private final String[] tokens;
+    private int position;
+    private int depth;
+
+    private CohortQuery(TrackerStore database, String[] tokens) {
+        this.database = database;
+        this.tokens = tokens;
+    }
+
+    public static StudentBitmap evaluate(TrackerStore database, String expression) {
+        String[] tokens = expression.replace("(", " ( ").replace(")", " ) ").strip().split("\\s+");
+        CohortQuery query = new CohortQuery(database, tokens);
+        StudentBitmap result = query.expression();
+
+        if (query.position != tokens.length) {
+            throw new IllegalArgumentException("Incorrect query");
+        }
+
+        return result;
+    }
+
+    private StudentBitmap expression() {
+        StudentBitmap result = operand();
+
+        while (position < tokens.length && !")".equals(tokens[position])) {
+            String operator = tokens[position++];
+
+            switch (operator) {
+                case "and":
+                    result = result.and(operand());
+                    break;
+                case "or":
+                    result = result.or(operand());
+                    break;
+                case "andnot":
+                    result = result.andNot(operand());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Incorrect query");
+            }
+        }
+
+        return result;
+    }
+
+    private StudentBitmap operand() {
+        if (position == tokens.length) {
+            throw new IllegalArgumentException("Incorrect query");
+        }
+
+        String token = tokens[position++];
+
+        if ("(".equals(token)) {
+            if (++depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Incorrect query");
+            }
+
+            StudentBitmap result = expression();
+            depth--;
+
+            if (position == tokens.length || !")".equals(tokens[position++])) {
+                throw new IllegalArgumentException("Incorrect query");
+            }
+            return result;
+        }
+        if ("all".equals(token)) {
+            return database.getStudentIds();
+        }
+        if (token.startsWith(ENROLLED)) {
+            return database.getEnrolledStudents(course(token.substring(ENROLLED.length())));
+        }
+        if (token.startsWith(GRADUATED)) {
+            return database.getGraduatedStudents(course(token.substring(GRADUATED.length())));
+        }
+
+        throw new IllegalArgumentException("Incorrect query");
+    }
+
+    private int course(String name) {
+        if (!database.courseExists(name)) {
+            throw new IllegalArgumentException("Unknown course");
+        }
+        return database.getCourseIndex(name);
+    }
+}
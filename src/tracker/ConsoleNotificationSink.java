@@ -0,0 +1,21 @@
+package tracker;
+
+import java.util.List;
+
+public class ConsoleNotificationSink implements NotificationSink {
+    private final ReportWriter report;
+
+    public ConsoleNotificationSink(ReportWriter report) {
+        this.report = report;
+    }
+
+    @Override
+    public void deliver(List<Notification> batch) {
+        for (Notification notification : batch) {
+            report.append("To: ").append(notification.getEmail()).newLine()
+                    .append("Re: Your Learning Progress").newLine()
+                    .append("Hello, ").append(notification.getName()).append("! You have accomplished our ")
+                    .append(notification.getCourseName()).append(" course!").newLine();
+        }
+    }
+}
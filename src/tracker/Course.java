@@ -2,63 +2,135 @@ package tracker;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Course {
+    private static final long HISTORY_BUCKET_MILLIS = 60_000;
+    private static final int HISTORY_BUCKETS = 7 * 24 * 60;
+    private static final long CURRENT = Long.MAX_VALUE - 1;
+
     private final int MIN_COMPLETION;
     private final String name;
-    private Map<Long, Integer> grades;
-    private Set<Long> graduatedStudents;
-    private int activity;
+    private final GradeStore grades;
+    private final int index;
+    private final ConcurrentSkipListMap<Long, Version> leaderboard;
+    private final Queue<Long> retiredKeys;
+    private final VersionClock clock;
+    private volatile Version live;
+    private final NotificationOutbox outbox;
+    private final TrackerMetrics metrics;
+    private final AtomicInteger activity;
+    private final AtomicInteger totalPoints;
+    private final ActivityHistory history;
+    private final ScoreDistribution distribution;
+    private final StudentBitmap graduatedStudents = new StudentBitmap();
 
-    public Course(String name) {
+    public Course(String name, int minCompletion, GradeStore grades, int index, NotificationOutbox outbox,
+                  TrackerMetrics metrics, VersionClock clock) {
         this.name = name;
-        this.grades = new HashMap<>();
+        this.MIN_COMPLETION = minCompletion;
+        this.outbox = outbox;
+        this.metrics = metrics;
+        this.grades = grades;
+        this.index = index;
+        this.leaderboard = new ConcurrentSkipListMap<>();
+        this.retiredKeys = new ConcurrentLinkedQueue<>();
+        this.clock = clock;
+        this.live = new Version(clock.getEpoch(), Long.MAX_VALUE);
+        this.activity = new AtomicInteger();
+        this.totalPoints = new AtomicInteger();
+        this.history = new ActivityHistory(System::currentTimeMillis, HISTORY_BUCKET_MILLIS, HISTORY_BUCKETS);
+        this.distribution = new ScoreDistribution(minCompletion);
+    }
+
+    public void incrementGrade(long id, int grade) {
+        applyDelta(id, grade, 1, grade == 0 ? 1 : 0);
+    }
+
+    public void applyDelta(long id, int grade, int submissions, int submissionsBeforeEnrollment) {
+        boolean enrolled = grades.isEnrolled(index, id);
 
-        switch (name) {
-            case "Java":
-                MIN_COMPLETION = 600;
-                break;
-            case "DSA":
-                MIN_COMPLETION = 400;
-                break;
-            case "Databases":
-                MIN_COMPLETION = 480;
-                break;
-            case "Spring":
-                MIN_COMPLETION = 550;
-                break;
-            default:
-                MIN_COMPLETION = 0;
+        if (!enrolled) {
+            if (grade == 0) {
+                return;
+            }
+            submissions -= submissionsBeforeEnrollment;
         }
 
-        graduatedStudents = new HashSet<>();
-    }
+        incrementActivity(submissions);
+        totalPoints.addAndGet(grade);
+        history.record(submissions, grade);
 
-    public void incrementGrade(long id, int grade) {
-        if (!grades.containsKey(id) && grade == 0) {
-            return;
+        int previous = enrolled ? grades.getPoints(index, id) : 0;
+        int points = grades.addPoints(index, id, grade);
+
+        if (!enrolled || points != previous) {
+            Version version = liveVersion();
+
+            if (enrolled) {
+                retire(leaderboardKey(previous, id), version.created);
+            }
+            leaderboard.put(leaderboardKey(points, id), version);
         }
 
-        incrementActivity();
-        grades.put(id, grades.getOrDefault(id, 0) + grade);
+        if (enrolled) {
+            distribution.move(previous, points);
+        } else {
+            distribution.add(points);
+        }
 
-        if (grades.get(id) >= MIN_COMPLETION) {
+        if (points >= MIN_COMPLETION && (!enrolled || previous < MIN_COMPLETION)) {
             graduatedStudents.add(id);
+            metrics.graduate(index);
+        }
+
+        if (points >= MIN_COMPLETION) {
+            outbox.enqueue(id, index);
         }
     }
 
-    public Set<Long> getGraduates() {
-        Set<Long> grads = new HashSet<>(graduatedStudents);
+    void restore(int activity, int totalPoints) {
+        this.activity.set(activity);
+        this.totalPoints.set(totalPoints);
+
+        List<Long> keys = new ArrayList<>(grades.getNumberOfStudents(index));
+        distribution.clear();
         graduatedStudents.clear();
-        return grads;
+        grades.forEachEnrolled(index, id -> {
+            int points = grades.getPoints(index, id);
+            keys.add(leaderboardKey(points, id));
+            distribution.add(points);
+
+            if (points >= MIN_COMPLETION) {
+                graduatedStudents.add(id);
+            }
+        });
+        Collections.sort(keys);
+        Version version = liveVersion();
+        leaderboard.clear();
+        retiredKeys.clear();
+
+        for (long key : keys) {
+            leaderboard.put(key, version);
+        }
     }
 
     public String getName() {
         return name;
     }
 
-    public Map<Long, Integer> getGrades() {
-        return grades;
+    public int getIndex() {
+        return index;
+    }
+
+    public int getPoints(long id) {
+        return grades.getPoints(index, id);
+    }
+
+    public boolean isEnrolled(long id) {
+        return grades.isEnrolled(index, id);
     }
 
     public int getMinCompletion() {
@@ -66,33 +138,202 @@ public class Course {
     }
 
     public int getNumberOfStudents() {
-        return grades.size();
+        return grades.getNumberOfStudents(index);
     }
 
     public int getActivity() {
-        return activity;
+        return activity.get();
     }
 
     public int getTotalPoints() {
-        return grades.values().stream().reduce(0, Integer::sum);
+        return totalPoints.get();
+    }
+
+    public ActivityHistory getHistory() {
+        return history;
+    }
+
+    public ScoreDistribution getDistribution() {
+        return distribution;
+    }
+
+    public StudentBitmap getEnrolledStudents() {
+        return StudentBitmap.fromWords(grades.getEnrollment(index));
+    }
+
+    public StudentBitmap getGraduatedStudents() {
+        return graduatedStudents.copy();
     }
 
     public BigDecimal getAveragePoints() {
-        try {
-            double avg = (double) getTotalPoints() / getActivity();
-            return BigDecimal.valueOf(avg);
-        } catch (NumberFormatException e) {
+        int submissions = getActivity();
+
+        if (submissions == 0) {
             return BigDecimal.ZERO;
         }
-
+        return BigDecimal.valueOf((double) getTotalPoints() / submissions);
     }
 
-    private void incrementActivity() {
-        activity += 1;
+    private void incrementActivity(int submissions) {
+        activity.addAndGet(submissions);
     }
 
     public long getTopLearner() {
-        return Collections.max(grades.entrySet(), Comparator.comparingInt(Map.Entry::getValue)).getKey();
+        Iterator<Long> keys = rankedKeys(CURRENT);
+
+        if (!keys.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return leaderboardId(keys.next());
+    }
+
+    public Iterable<Long> getLeaderboard() {
+        return () -> new Iterator<>() {
+            private final Iterator<Long> keys = rankedKeys(CURRENT);
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                return leaderboardId(keys.next());
+            }
+        };
+    }
+
+    public List<Long> getLeaderboard(int offset, int limit) {
+        List<Long> page = new ArrayList<>();
+        Iterator<Long> iterator = getLeaderboard().iterator();
+
+        for (int i = 0; i < offset && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+
+        return page;
+    }
+
+    public void forEachRanked(long offset, long limit, RankedStudentConsumer action) {
+        forEachRanked(CURRENT, offset, limit, action);
+    }
+
+    void forEachRanked(long version, long offset, long limit, RankedStudentConsumer action) {
+        Iterator<Long> keys = rankedKeys(version);
+
+        for (long i = 0; i < offset && keys.hasNext(); i++) {
+            keys.next();
+        }
+        for (long i = 0; i < limit && keys.hasNext(); i++) {
+            long key = keys.next();
+            action.accept(leaderboardId(key), leaderboardPoints(key));
+        }
+    }
+
+    Iterator<Long> rankedKeys(long version) {
+        Iterator<Map.Entry<Long, Version>> entries = leaderboard.entrySet().iterator();
+
+        return new Iterator<>() {
+            private Long next = advance();
+
+            private Long advance() {
+                while (entries.hasNext()) {
+                    Map.Entry<Long, Version> entry = entries.next();
+
+                    if (entry.getValue().isVisible(version)) {
+                        return entry.getKey();
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Long next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                Long key = next;
+                next = advance();
+                return key;
+            }
+        };
+    }
+
+    private Version liveVersion() {
+        long epoch = clock.getEpoch();
+        Version version = live;
+
+        if (version.created != epoch) {
+            version = new Version(epoch, Long.MAX_VALUE);
+            live = version;
+        }
+
+        return version;
+    }
+
+    private void retire(long key, long epoch) {
+        Version version = leaderboard.get(key);
+
+        if (version == null) {
+            return;
+        }
+        if (version.created == epoch || !clock.hasReaders()) {
+            leaderboard.remove(key, version);
+            return;
+        }
+
+        leaderboard.replace(key, version, new Version(version.created, epoch));
+        retiredKeys.add(key);
+    }
+
+    synchronized void reclaim(long oldestReader) {
+        while (true) {
+            Long key = retiredKeys.peek();
+
+            if (key == null) {
+                return;
+            }
+
+            Version version = leaderboard.get(key);
+
+            if (version != null && version.retired != Long.MAX_VALUE) {
+                if (version.retired > oldestReader) {
+                    return;
+                }
+                leaderboard.remove(key, version);
+            }
+
+            retiredKeys.poll();
+        }
+    }
+
+    public interface RankedStudentConsumer {
+        void accept(long id, int points);
+    }
+
+    static int leaderboardPoints(long key) {
+        return Integer.MAX_VALUE - (int) (key >>> 32);
+    }
+
+    static long leaderboardKey(int points, long id) {
+        if (id < 0 || id > User.MAX_ID) {
+            throw new IllegalArgumentException("Student id out of range: " + id);
+        }
+
+        return ((long) (Integer.MAX_VALUE - points) << 32) | id;
+    }
+
+    static long leaderboardId(long key) {
+        return key & 0xFFFFFFFFL;
     }
 
     @Override
@@ -107,4 +348,18 @@ public class Course {
     public int hashCode() {
         return Objects.hash(name);
     }
+
+    private static class Version {
+        private final long created;
+        private final long retired;
+
+        private Version(long created, long retired) {
+            this.created = created;
+            this.retired = retired;
+        }
+
+        private boolean isVisible(long version) {
+            return created <= version && version < retired;
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package tracker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CourseRegistry {
+    private final String[] names;
+    private final int[] minCompletion;
+    private final Map<String, Integer> indices;
+
+    private CourseRegistry(List<String> names, List<Integer> minCompletion) {
+        this.names = names.toArray(new String[0]);
+        this.minCompletion = new int[names.size()];
+        this.indices = new HashMap<>();
+
+        for (int i = 0; i < this.names.length; i++) {
+            if (indices.putIfAbsent(this.names[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate course: " + this.names[i]);
+            }
+            this.minCompletion[i] = minCompletion.get(i);
+        }
+    }
+
+    public static CourseRegistry defaults() {
+        return parse(List.of("Java 600", "DSA 400", "Databases 480", "Spring 550"));
+    }
+
+    public static CourseRegistry load(Path path) throws IOException {
+        try {
+            return parse(Files.readAllLines(path));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid course configuration " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    static CourseRegistry parse(List<String> lines) {
+        List<String> names = new ArrayList<>();
+        List<Integer> minCompletion = new ArrayList<>();
+
+        for (String line : lines) {
+            line = line.strip();
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] definition = line.split("\\s+");
+
+            if (definition.length != 2) {
+                throw new IllegalArgumentException("Expected '<name> <points to complete>': " + line);
+            }
+
+            int threshold;
+
+            try {
+                threshold = Integer.parseInt(definition[1]);
+            } catch (NumberFormatException e) {
+                threshold = -1;
+            }
+
+            if (threshold <= 0) {
+                throw new IllegalArgumentException("Incorrect completion threshold: " + line);
+            }
+
+            names.add(definition[0]);
+            minCompletion.add(threshold);
+        }
+
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("No courses defined");
+        }
+
+        return new CourseRegistry(names, minCompletion);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int course) {
+        return names[course];
+    }
+
+    public int getMinCompletion(int course) {
+        return minCompletion[course];
+    }
+
+    public int indexOf(String name) {
+        return indices.getOrDefault(name, -1);
+    }
+
+    String[] getNames() {
+        return names.clone();
+    }
+}
@@ -0,0 +1,143 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class CourseStatistics {
+    private final List<String> mostPopular = new ArrayList<>();
+    private final List<String> leastPopular = new ArrayList<>();
+    private final List<String> mostActive = new ArrayList<>();
+    private final List<String> leastActive = new ArrayList<>();
+    private final List<String> easiest = new ArrayList<>();
+    private final List<String> hardest = new ArrayList<>();
+
+    public CourseStatistics(Collection<Course> courses) {
+        this(totals(courses));
+    }
+
+    private CourseStatistics(List<Totals> courses) {
+        if (courses.isEmpty()) {
+            return;
+        }
+
+        long maxStudents = Long.MIN_VALUE;
+        long minStudents = Long.MAX_VALUE;
+        long maxActivity = Long.MIN_VALUE;
+        long minActivity = Long.MAX_VALUE;
+        double maxAverage = Double.NEGATIVE_INFINITY;
+        double minAverage = Double.POSITIVE_INFINITY;
+
+        for (Totals course : courses) {
+            maxStudents = Math.max(maxStudents, course.getStudents());
+            minStudents = Math.min(minStudents, course.getStudents());
+            maxActivity = Math.max(maxActivity, course.getActivity());
+            minActivity = Math.min(minActivity, course.getActivity());
+            maxAverage = Math.max(maxAverage, course.getAverage());
+            minAverage = Math.min(minAverage, course.getAverage());
+        }
+
+        for (Totals course : courses) {
+            boolean popular = maxStudents != 0 && course.getStudents() == maxStudents;
+            boolean active = maxActivity != 0 && course.getActivity() == maxActivity;
+            boolean easy = maxAverage != 0 && course.getAverage() == maxAverage;
+
+            if (popular) {
+                mostPopular.add(course.getName());
+            } else if (minStudents != 0 && course.getStudents() == minStudents) {
+                leastPopular.add(course.getName());
+            }
+
+            if (active) {
+                mostActive.add(course.getName());
+            } else if (minActivity != 0 && course.getActivity() == minActivity) {
+                leastActive.add(course.getName());
+            }
+
+            if (easy) {
+                easiest.add(course.getName());
+            } else if (minAverage != 0 && course.getAverage() == minAverage) {
+                hardest.add(course.getName());
+            }
+        }
+    }
+
+    public static CourseStatistics of(List<Totals> courses) {
+        return new CourseStatistics(courses);
+    }
+
+    public static List<Totals> totals(Collection<Course> courses) {
+        List<Totals> totals = new ArrayList<>(courses.size());
+
+        for (Course course : courses) {
+            totals.add(new Totals(course.getName(), course.getNumberOfStudents(), course.getActivity(),
+                    course.getTotalPoints()));
+        }
+
+        return totals;
+    }
+
+    public List<String> getMostPopular() {
+        return Collections.unmodifiableList(mostPopular);
+    }
+
+    public List<String> getLeastPopular() {
+        return Collections.unmodifiableList(leastPopular);
+    }
+
+    public List<String> getMostActive() {
+        return Collections.unmodifiableList(mostActive);
+    }
+
+    public List<String> getLeastActive() {
+        return Collections.unmodifiableList(leastActive);
+    }
+
+    public List<String> getEasiest() {
+        return Collections.unmodifiableList(easiest);
+    }
+
+    public List<String> getHardest() {
+        return Collections.unmodifiableList(hardest);
+    }
+
+    public static class Totals {
+        private final String name;
+        private final long students;
+        private final long activity;
+        private final long totalPoints;
+
+        public Totals(String name, long students, long activity, long totalPoints) {
+            this.name = name;
+            this.students = students;
+            this.activity = activity;
+            this.totalPoints = totalPoints;
+        }
+
+        public Totals plus(Totals other) {
+            return new Totals(name, students + other.students, activity + other.activity,
+                    totalPoints + other.totalPoints);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStudents() {
+            return students;
+        }
+
+        public long getActivity() {
+            return activity;
+        }
+
+        public long getTotalPoints() {
+            return totalPoints;
+        }
+
+        private double getAverage() {
+            return activity == 0 ? 0 : (double) totalPoints / activity;
+        }
+    }
+}
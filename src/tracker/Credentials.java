@@ -0,0 +1,51 @@
+package tracker;
+
+public class Credentials {
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final Rejection rejection;
+
+    private Credentials(String firstName, String lastName, String email, Rejection rejection) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.rejection = rejection;
+    }
+
+    public static Credentials valid(String firstName, String lastName, String email) {
+        return new Credentials(firstName, lastName, email, null);
+    }
+
+    public static Credentials invalid(Rejection rejection) {
+        return new Credentials(null, null, null, rejection);
+    }
+
+    public boolean isValid() {
+        return rejection == null;
+    }
+
+    public Rejection getRejection() {
+        return rejection;
+    }
+
+    public String getError() {
+        return rejection == null ? null : rejection.getMessage();
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public User toUser() {
+        return new User(firstName, lastName, email);
+    }
+}
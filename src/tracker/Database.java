@@ -1,60 +1,495 @@
 package tracker;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.LongPredicate;
 
-public class Database {
-    private final Map<Long, User> users;
+public class Database implements TrackerStore {
+    private static final int LOCK_STRIPES = 64;
+
+    private final StudentDirectory users;
     private final Map<String, Course> courses;
+    private final Course[] courseIndex;
+    private final GradeStore grades;
+    private final EmailIndex emailIndex;
+    private final StudentIndex searchIndex = new StudentIndex();
+    private final StudentBitmap students = new StudentBitmap();
+    private final Object[] studentLocks;
+    private final Object[] emailLocks;
+    private final Object notifyLock = new Object();
+    private final NotificationOutbox outbox;
+    private final TrackerMetrics metrics;
+    private final VersionClock clock = new VersionClock();
+    private volatile WriteAheadLog log;
 
     public Database() {
-        users = new HashMap<>();
+        this(16);
+    }
+
+    public Database(int expectedStudents) {
+        this(CourseRegistry.defaults(), expectedStudents);
+    }
+
+    public Database(CourseRegistry registry, int expectedStudents) {
+        this(registry, expectedStudents, new TrackerMetrics(registry.size()));
+    }
+
+    @SuppressWarnings("this-escape")
+    Database(CourseRegistry registry, int expectedStudents, TrackerMetrics metrics) {
+        grades = new GradeStore(registry.getNames());
+        users = new StudentDirectory(grades);
+        emailIndex = new EmailIndex(users);
+        grades.reserveCapacity(expectedStudents + 1);
+        emailIndex.reserve(expectedStudents);
         courses = new HashMap<>();
-        courses.put("Java", new Course("Java"));
-        courses.put("DSA", new Course("DSA"));
-        courses.put("Databases", new Course("Databases"));
-        courses.put("Spring", new Course("Spring"));
+        courseIndex = new Course[registry.size()];
+        this.metrics = metrics;
+        outbox = new NotificationOutbox(this);
+
+        for (int i = 0; i < courseIndex.length; i++) {
+            courseIndex[i] = new Course(registry.getName(i), registry.getMinCompletion(i), grades, i, outbox,
+                    metrics, clock);
+            courses.put(courseIndex[i].getName(), courseIndex[i]);
+        }
+
+        studentLocks = new Object[LOCK_STRIPES];
+        emailLocks = new Object[LOCK_STRIPES];
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            studentLocks[i] = new Object();
+            emailLocks[i] = new Object();
+        }
+    }
+
+    public static Database open(Path logPath, WriteAheadLog.Durability durability) throws IOException {
+        return open(logPath, durability, null);
+    }
+
+    public static Database open(Path logPath, WriteAheadLog.Durability durability, Path snapshotPath)
+            throws IOException {
+        return open(logPath, durability, snapshotPath, CourseRegistry.defaults());
+    }
+
+    public static Database open(Path logPath, WriteAheadLog.Durability durability, Path snapshotPath,
+                                CourseRegistry registry) throws IOException {
+        return open(logPath, durability, snapshotPath, registry, new TrackerMetrics(registry.size()));
+    }
+
+    static Database open(Path logPath, WriteAheadLog.Durability durability, Path snapshotPath,
+                         CourseRegistry registry, TrackerMetrics metrics) throws IOException {
+        Database database = new Database(registry, 16, metrics);
+        long logPosition = 0;
+
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            logPosition = Snapshot.load(snapshotPath, database);
+        }
+
+        if (logPath != null) {
+            WriteAheadLog.replay(logPath, database, logPosition);
+            database.log = WriteAheadLog.open(logPath, durability);
+
+            for (Course course : database.courseIndex) {
+                course.getHistory().clear();
+            }
+        }
+
+        return database;
+    }
+
+    @Override
+    public void writeSnapshot(Path path) throws IOException {
+        snapshot().write(path);
+    }
+
+    public Snapshot snapshot() throws IOException {
+        WriteAheadLog log = this.log;
+        Cut cut = clock.open(version -> {
+            List<Set<Long>> pendingGraduates = new ArrayList<>(courseIndex.length);
+
+            for (int i = 0; i < courseIndex.length; i++) {
+                pendingGraduates.add(outbox.getPending(i));
+            }
+
+            return new Cut(new ReadView(this, version, getCourseTotals(), User.getLastId()),
+                    log == null ? 0 : log.getPosition(), pendingGraduates);
+        });
+
+        try (ReadView view = cut.view) {
+            if (log != null) {
+                log.sync();
+            }
+            return new Snapshot(cut.logPosition, view, users, courseIndex, cut.pendingGraduates);
+        }
+    }
+
+    void restoreCourse(int course, int activity, int totalPoints, int[] points, long[] enrollment, long[] graduates) {
+        grades.restore(course, points, enrollment);
+        courseIndex[course].restore(activity, totalPoints);
+        outbox.restore(course, graduates);
+    }
+
+    @Override
+    public User register(Credentials credentials) {
+        long start = System.nanoTime();
+        String email = normalizeEmail(credentials.getEmail());
+        User user;
+        long seq;
+
+        synchronized (emailLock(email)) {
+            if (emailIndex.contains(email)) {
+                metrics.record(Operation.DATABASE_REGISTER, start);
+                return null;
+            }
+
+            long stamp = clock.beginWrite();
+
+            try {
+                user = credentials.toUser();
+                seq = insertStudent(user, email);
+            } finally {
+                clock.endWrite(stamp);
+            }
+        }
+
+        awaitDurable(seq);
+        metrics.record(Operation.DATABASE_REGISTER, start);
+        return user;
+    }
+
+    void addStudent(User user) {
+        long start = System.nanoTime();
+        long seq;
+        long stamp = clock.beginWrite();
+
+        try {
+            seq = insertStudent(user, normalizeEmail(user.getEmail()));
+        } finally {
+            clock.endWrite(stamp);
+        }
+
+        awaitDurable(seq);
+        metrics.record(Operation.DATABASE_REGISTER, start);
+    }
+
+    void restoreStudent(long id, String firstName, String lastName, String email) {
+        insertStudent(new User(id, firstName, lastName, email), normalizeEmail(email));
     }
 
-    public void addStudent(User user) {
-        users.put(user.getId(), user);
+    private long insertStudent(User user, String email) {
+        WriteAheadLog log = this.log;
+        long seq = log == null ? 0 : log.appendStudent(user);
+        user.attach(grades);
+        users.add(user);
+        emailIndex.put(email, user.getId());
+        searchIndex.add(user);
+        students.add(user.getId());
+        return seq;
     }
 
+    private void awaitDurable(long seq) {
+        WriteAheadLog log = this.log;
+
+        if (log != null && seq > 0) {
+            log.awaitDurable(seq);
+        }
+    }
+
+    @Override
     public boolean studentExists(String email) {
-        return users.values().stream().anyMatch(user -> email.equals(user.getEmail()));
+        return emailIndex.contains(normalizeEmail(email));
+    }
+
+    @Override
+    public int getNumberOfStudents() {
+        return users.size();
+    }
+
+    @Override
+    public void reserveCapacity(int expectedStudents) {
+        grades.reserveCapacity(expectedStudents + 1);
+        reserveIndexCapacity(expectedStudents);
+    }
+
+    void reserveIndexCapacity(int expectedStudents) {
+        emailIndex.reserve(expectedStudents);
+    }
+
+    static String normalizeEmail(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private Object emailLock(String email) {
+        return emailLocks[email.hashCode() & (LOCK_STRIPES - 1)];
+    }
+
+    private Object studentLock(long id) {
+        return studentLocks[studentStripe(id)];
     }
 
+    private static int studentStripe(long id) {
+        return (int) (id & (LOCK_STRIPES - 1));
+    }
+
+    @Override
     public boolean studentExists(long id) {
-        return users.containsKey(id);
+        return users.contains(id);
     }
 
+    @Override
     public User getStudent(long id) {
         return users.get(id);
     }
 
-    public void update(long id, int java, int dsa, int db, int spring) {
-        User user = users.get(id);
-        user.incrementGrade("Java", java);
-        user.incrementGrade("DSA", dsa);
-        user.incrementGrade("Databases", db);
-        user.incrementGrade("Spring", spring);
+    @Override
+    public List<User> search(String query, boolean prefix, int offset, int limit) {
+        return searchIndex.search(query, prefix, offset, limit, users::get);
+    }
+
+    @Override
+    public void update(long id, int[] points) {
+        long start = System.nanoTime();
+        WriteAheadLog log = this.log;
+        long seq = 0;
+
+        if (points.length != courseIndex.length) {
+            throw new IllegalArgumentException("Expected points for " + courseIndex.length + " courses");
+        }
+
+        outbox.awaitCapacity();
+
+        synchronized (studentLock(id)) {
+            long stamp = clock.beginWrite();
+
+            try {
+                if (log != null) {
+                    seq = log.appendPoints(id, points);
+                }
+
+                for (int i = 0; i < courseIndex.length; i++) {
+                    courseIndex[i].incrementGrade(id, points[i]);
+                }
+            } finally {
+                clock.endWrite(stamp);
+            }
+        }
+
+        awaitDurable(seq);
+        metrics.record(Operation.DATABASE_UPDATE, start);
+    }
+
+    @Override
+    public void update(PointsBatch batch) {
+        long start = System.nanoTime();
+        WriteAheadLog log = this.log;
+        long seq = 0;
+
+        outbox.awaitCapacity();
+
+        for (Map.Entry<Long, int[]> entry : batch.getDeltas().entrySet()) {
+            long id = entry.getKey();
+
+            synchronized (studentLock(id)) {
+                long stamp = clock.beginWrite();
 
-        courses.get("Java").incrementGrade(id, java);
-        courses.get("DSA").incrementGrade(id, dsa);
-        courses.get("Databases").incrementGrade(id, db);
-        courses.get("Spring").incrementGrade(id, spring);
+                try {
+                    if (log != null) {
+                        seq = log.appendDelta(id, entry.getValue());
+                    }
+
+                    applyDelta(id, entry.getValue());
+                } finally {
+                    clock.endWrite(stamp);
+                }
+            }
+        }
+
+        awaitDurable(seq);
+        metrics.record(Operation.DATABASE_BATCH_UPDATE, start);
+    }
+
+    void applyDelta(long id, int[] delta) {
+        for (int i = 0; i < courseIndex.length; i++) {
+            courseIndex[i].applyDelta(id, PointsBatch.points(delta, i),
+                    PointsBatch.submissions(delta, i), PointsBatch.submissionsBeforeEnrollment(delta, i));
+        }
+    }
+
+    public ReadView openView() {
+        return clock.open(version -> new ReadView(this, version, getCourseTotals(), User.getLastId()));
+    }
+
+    void closeView(long version) {
+        clock.close(version, oldestReader -> {
+            for (Course course : courseIndex) {
+                course.reclaim(oldestReader);
+            }
+        });
+    }
+
+    VersionClock getClock() {
+        return clock;
+    }
+
+    @Override
+    public TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public int getNumberOfCourses() {
+        return courseIndex.length;
+    }
+
+    public NotificationOutbox getOutbox() {
+        return outbox;
+    }
+
+    public Course getCourse(int course) {
+        return courseIndex[course];
+    }
+
+    @Override
+    public String getCourseName(int course) {
+        return courseIndex[course].getName();
+    }
+
+    @Override
+    public int getMinCompletion(int course) {
+        return courseIndex[course].getMinCompletion();
+    }
+
+    @Override
+    public ScoreDistribution getDistribution(int course) {
+        return courseIndex[course].getDistribution();
+    }
+
+    @Override
+    public StudentBitmap getEnrolledStudents(int course) {
+        return courseIndex[course].getEnrolledStudents();
+    }
+
+    @Override
+    public StudentBitmap getGraduatedStudents(int course) {
+        return courseIndex[course].getGraduatedStudents();
+    }
+
+    @Override
+    public void forEachRanked(int course, long offset, long limit, Course.RankedStudentConsumer action) {
+        try (ReadView view = openView()) {
+            view.forEachRanked(courseIndex[course], offset, limit, action);
+        }
+    }
+
+    @Override
+    public NotificationOutbox.DispatchResult notifyGraduates(NotificationSink fallback) throws IOException {
+        NotificationSink sink = outbox.getSink();
+        return outbox.dispatchAll(sink == null ? fallback : sink);
+    }
+
+    @Override
+    public void startNotifications(NotificationSink sink, int capacity, int batchSize) {
+        outbox.start(sink, capacity, batchSize);
+    }
+
+    @Override
+    public long getDeliveredNotifications() {
+        return outbox.getDeliveredCount();
+    }
+
+    @Override
+    public int getPendingNotifications() {
+        return outbox.getPendingCount();
+    }
+
+    void logNotified(List<Long> events, LongPredicate settle) {
+        WriteAheadLog log = this.log;
+        long[] seq = new long[1];
+        boolean[] stripes = new boolean[LOCK_STRIPES];
+
+        for (long event : events) {
+            stripes[studentStripe(NotificationOutbox.studentId(event))] = true;
+        }
+
+        synchronized (notifyLock) {
+            withStudentLocks(stripes, 0, () -> {
+                long stamp = clock.beginWrite();
+
+                try {
+                    Map<Integer, List<Long>> byCourse = new TreeMap<>();
+
+                    for (long event : events) {
+                        if (settle.test(event)) {
+                            byCourse.computeIfAbsent(NotificationOutbox.course(event), course -> new ArrayList<>())
+                                    .add(NotificationOutbox.studentId(event));
+                        }
+                    }
+
+                    if (log != null) {
+                        for (Map.Entry<Integer, List<Long>> entry : byCourse.entrySet()) {
+                            seq[0] = log.appendNotified(entry.getKey(), entry.getValue());
+                        }
+                    }
+                } finally {
+                    clock.endWrite(stamp);
+                }
+            });
+        }
+
+        awaitDurable(seq[0]);
+    }
+
+    private void withStudentLocks(boolean[] stripes, int from, Runnable action) {
+        for (int i = from; i < stripes.length; i++) {
+            if (stripes[i]) {
+                synchronized (studentLocks[i]) {
+                    withStudentLocks(stripes, i + 1, action);
+                }
+                return;
+            }
+        }
+
+        action.run();
+    }
+
+    void restoreNotified(int course, long[] ids) {
+        outbox.remove(course, ids);
+    }
+
+    public GradeStore getGradeStore() {
+        return grades;
     }
 
     public void printStudentsList() {
-        if (users.isEmpty()) {
-            System.out.println("No students found");
-        } else {
-            System.out.println("Students:");
-            users.keySet().forEach(System.out::println);
+        ReportWriter report = ReportWriter.of(System.out);
+        printStudentsList(report);
+        report.flush();
+    }
+
+    @Override
+    public void printStudentsList(ReportWriter report) {
+        try (ReadView view = openView()) {
+            view.printStudentsList(report);
         }
     }
 
+    void printStudentsList(ReportWriter report, long lastId) {
+        long id = users.nextId(0);
+
+        if (id < 0 || id > lastId) {
+            report.println("No students found");
+            return;
+        }
+
+        report.println("Students:");
+
+        for (; id >= 0 && id <= lastId; id = users.nextId(id + 1)) {
+            report.append(id).newLine();
+        }
+    }
+
+    @Override
     public boolean courseExists(String courseName) {
         return courses.containsKey(courseName);
     }
@@ -63,66 +498,77 @@ public class Database {
         return courses.get(courseName);
     }
 
-    public List<String> getMostPopularCourse() {
-        int max = Collections.max(courses.values(), Comparator.comparing(Course::getNumberOfStudents)).getNumberOfStudents();
-        if (max == 0) {
-            return Collections.emptyList();
+    @Override
+    public int getCourseIndex(String courseName) {
+        Course course = courses.get(courseName);
+        return course == null ? -1 : course.getIndex();
+    }
+
+    @Override
+    public CourseStatistics getCourseStatistics() {
+        try (ReadView view = openView()) {
+            return view.getCourseStatistics();
         }
-        return courses.values().stream().filter(course -> course.getNumberOfStudents() == max)
-                .map(Course::getName).collect(Collectors.toList());
+    }
+
+    public List<CourseStatistics.Totals> getCourseTotals() {
+        return CourseStatistics.totals(Arrays.asList(courseIndex));
+    }
+
+    @Override
+    public StudentBitmap getStudentIds() {
+        return students.copy();
+    }
+
+    @Override
+    public ActivityReport getActivityReport(long windowMillis) {
+        return new ActivityReport(Arrays.asList(courseIndex), windowMillis);
+    }
+
+    public List<String> getMostPopularCourse() {
+        return getCourseStatistics().getMostPopular();
     }
 
     public List<String> getLeastPopularCourse() {
-        int min = Collections.min(courses.values(), Comparator.comparing(Course::getNumberOfStudents)).getNumberOfStudents();
-        if (min == 0) {
-            return Collections.emptyList();
-        }
-        List<String> mostPopular = getMostPopularCourse();
-        List<String> leastPopular = courses.values().stream().filter(course -> course.getNumberOfStudents() == min)
-                .map(Course::getName).collect(Collectors.toList());
-        leastPopular.removeAll(mostPopular);
-        return leastPopular;
+        return getCourseStatistics().getLeastPopular();
     }
 
     public List<String> getMostActiveCourse() {
-        int max = Collections.max(courses.values(), Comparator.comparing(Course::getActivity)).getActivity();
-        if (max == 0) {
-            return Collections.emptyList();
-        }
-        return courses.values().stream().filter(course -> course.getActivity() == max)
-                .map(Course::getName).collect(Collectors.toList());
+        return getCourseStatistics().getMostActive();
     }
 
     public List<String> getLeastActiveCourse() {
-        int min = Collections.min(courses.values(), Comparator.comparing(Course::getActivity)).getActivity();
-        if (min == 0) {
-            return Collections.emptyList();
-        }
-        List<String> mostActive = getMostActiveCourse();
-        List<String> leastActive = courses.values().stream().filter(course -> course.getActivity() == min)
-                .map(Course::getName).collect(Collectors.toList());
-        leastActive.removeAll(mostActive);
-        return leastActive;
+        return getCourseStatistics().getLeastActive();
     }
 
     public List<String> getEasiestCourse() {
-        BigDecimal max = Collections.max(courses.values(), Comparator.comparing(Course::getAveragePoints)).getAveragePoints();
-        if (max.equals(BigDecimal.ZERO)) {
-            return Collections.emptyList();
-        }
-        return courses.values().stream().filter(course -> Objects.equals(course.getAveragePoints(), max))
-                .map(Course::getName).collect(Collectors.toList());
+        return getCourseStatistics().getEasiest();
     }
 
     public List<String> getHardestCourse() {
-        BigDecimal min = Collections.min(courses.values(), Comparator.comparing(Course::getAveragePoints)).getAveragePoints();
-        if (min.equals(BigDecimal.ZERO)) {
-            return Collections.emptyList();
-        }
-        List<String> easiest = getEasiestCourse();
-        List<String> hardest = courses.values().stream().filter(course -> Objects.equals(course.getAveragePoints(), min))
-                .map(Course::getName).collect(Collectors.toList());
-        hardest.removeAll(easiest);
-        return hardest;
+        return getCourseStatistics().getHardest();
+    }
+
+    @Override
+    public void close() throws IOException {
+        outbox.close();
+        WriteAheadLog log = this.log;
+
+        if (log != null) {
+            this.log = null;
+            log.close();
+        }
+    }
+
+    private static class Cut {
+        private final ReadView view;
+        private final long logPosition;
+        private final List<Set<Long>> pendingGraduates;
+
+        Cut(ReadView view, long logPosition, List<Set<Long>> pendingGraduates) {
+            this.view = view;
+            this.logPosition = logPosition;
+            this.pendingGraduates = pendingGraduates;
+        }
     }
 }
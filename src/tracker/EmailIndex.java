@@ -0,0 +1,123 @@
+package tracker;
+
+public class EmailIndex {
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final long ID_MASK = 0xFFFFFFFFL;
+
+    private final StudentDirectory directory;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public EmailIndex(StudentDirectory directory) {
+        this.directory = directory;
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public boolean contains(String normalizedEmail) {
+        int hash = hash(normalizedEmail);
+        return stripes[hash & (STRIPES - 1)].find(normalizedEmail, hash) != 0;
+    }
+
+    public void put(String normalizedEmail, long id) {
+        if ((id & ~ID_MASK) != 0 || id == 0) {
+            throw new IllegalArgumentException("Student id out of range: " + id);
+        }
+
+        int hash = hash(normalizedEmail);
+        stripes[hash & (STRIPES - 1)].put(normalizedEmail, hash, id);
+    }
+
+    public void reserve(int expected) {
+        int perStripe = expected / STRIPES + 1;
+
+        for (Stripe stripe : stripes) {
+            stripe.reserve(perStripe);
+        }
+    }
+
+    int getCapacity() {
+        int capacity = 0;
+
+        for (Stripe stripe : stripes) {
+            capacity += stripe.getCapacity();
+        }
+
+        return capacity;
+    }
+
+    private static int hash(String email) {
+        int hash = email.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private class Stripe {
+        private long[] slots = new long[16];
+        private int size;
+
+        private synchronized long find(String email, int hash) {
+            int mask = slots.length - 1;
+
+            for (int i = (hash >>> STRIPE_BITS) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                long slot = slots[i];
+
+                if ((int) (slot >>> 32) == hash && directory.emailEquals(slot & ID_MASK, email)) {
+                    return slot & ID_MASK;
+                }
+            }
+
+            return 0;
+        }
+
+        private synchronized void put(String email, int hash, long id) {
+            if (find(email, hash) != 0) {
+                return;
+            }
+            if (2 * (size + 1) > slots.length) {
+                resize(slots.length * 2);
+            }
+
+            insert(((long) hash << 32) | id);
+            size++;
+        }
+
+        private synchronized void reserve(int expected) {
+            int capacity = slots.length;
+
+            while (capacity < 2 * expected) {
+                capacity *= 2;
+            }
+            if (capacity > slots.length) {
+                resize(capacity);
+            }
+        }
+
+        private synchronized int getCapacity() {
+            return slots.length;
+        }
+
+        private void resize(int capacity) {
+            long[] old = slots;
+            slots = new long[capacity];
+
+            for (long slot : old) {
+                if (slot != 0) {
+                    insert(slot);
+                }
+            }
+        }
+
+        private void insert(long slot) {
+            int mask = slots.length - 1;
+            int i = ((int) (slot >>> 32) >>> STRIPE_BITS) & mask;
+
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+
+            slots[i] = slot;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class FileNotificationSink implements NotificationSink, AutoCloseable {
+    private final FileChannel channel;
+    private final ReportWriter report;
+
+    public FileNotificationSink(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.report = ReportWriter.of(channel);
+    }
+
+    @Override
+    public synchronized void deliver(List<Notification> batch) throws IOException {
+        try {
+            for (Notification notification : batch) {
+                report.append("To: ").append(notification.getEmail()).newLine()
+                        .append("Re: Your Learning Progress").newLine()
+                        .newLine()
+                        .append("Hello, ").append(notification.getName()).append("! You have accomplished our ")
+                        .append(notification.getCourseName()).append(" course!").newLine()
+                        .newLine();
+            }
+
+            report.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            report.close();
+        }
+    }
+}
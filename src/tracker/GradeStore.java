@@ -0,0 +1,205 @@
+package tracker;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+public class GradeStore {
+    static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final VarHandle POINTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final String[] courseNames;
+    private final AtomicIntegerArray enrolledCount;
+    private volatile Chunk[] chunks;
+
+    public GradeStore(String... courseNames) {
+        this.courseNames = courseNames.clone();
+        this.enrolledCount = new AtomicIntegerArray(courseNames.length);
+        this.chunks = new Chunk[0];
+    }
+
+    public int getNumberOfCourses() {
+        return courseNames.length;
+    }
+
+    public String getCourseName(int course) {
+        return courseNames[course];
+    }
+
+    public boolean isEnrolled(int course, long id) {
+        Chunk chunk = chunk(id);
+        return chunk != null && chunk.isEnrolled(course, offset(id));
+    }
+
+    public int getPoints(int course, long id) {
+        Chunk chunk = chunk(id);
+        return chunk == null ? 0 : (int) POINTS.getAcquire(chunk.points, course * CHUNK_SIZE + offset(id));
+    }
+
+    public int addPoints(int course, long id, int delta) {
+        Chunk chunk = chunk(id);
+
+        if (chunk == null) {
+            chunk = createChunk(chunkIndex(id), false);
+        }
+
+        int offset = offset(id);
+
+        if (chunk.enroll(course, offset)) {
+            enrolledCount.incrementAndGet(course);
+        }
+
+        return (int) POINTS.getAndAdd(chunk.points, course * CHUNK_SIZE + offset, delta) + delta;
+    }
+
+    public int getNumberOfStudents(int course) {
+        return enrolledCount.get(course);
+    }
+
+    public void reserveCapacity(int expectedStudents) {
+        if (expectedStudents > 0) {
+            createChunk(chunkIndex(expectedStudents - 1), true);
+        }
+    }
+
+    public void restore(int course, int[] column, long[] enrollment) {
+        reserveCapacity(column.length);
+        Chunk[] current = chunks;
+        int wordsPerChunk = CHUNK_SIZE / 64;
+        int count = 0;
+
+        for (int c = 0; c * CHUNK_SIZE < column.length; c++) {
+            int length = Math.min(CHUNK_SIZE, column.length - c * CHUNK_SIZE);
+            System.arraycopy(column, c * CHUNK_SIZE, current[c].points, course * CHUNK_SIZE, length);
+
+            for (int w = 0; w < wordsPerChunk && c * wordsPerChunk + w < enrollment.length; w++) {
+                long word = enrollment[c * wordsPerChunk + w];
+                current[c].enrolled.set(course * wordsPerChunk + w, word);
+                count += Long.bitCount(word);
+            }
+        }
+
+        enrolledCount.set(course, count);
+    }
+
+    public long[] getEnrollment(int course) {
+        Chunk[] current = chunks;
+        int wordsPerChunk = CHUNK_SIZE / 64;
+        long[] words = new long[current.length * wordsPerChunk];
+
+        for (int c = 0; c < current.length; c++) {
+            if (current[c] == null) {
+                continue;
+            }
+
+            for (int w = 0; w < wordsPerChunk; w++) {
+                words[c * wordsPerChunk + w] = current[c].enrolled.get(course * wordsPerChunk + w);
+            }
+        }
+
+        return words;
+    }
+
+    public void forEachEnrolled(int course, LongConsumer action) {
+        Chunk[] current = chunks;
+        int wordsPerChunk = CHUNK_SIZE / 64;
+
+        for (int c = 0; c < current.length; c++) {
+            if (current[c] == null) {
+                continue;
+            }
+
+            for (int w = 0; w < wordsPerChunk; w++) {
+                long word = current[c].enrolled.get(course * wordsPerChunk + w);
+
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    action.accept((long) c * CHUNK_SIZE + w * 64 + bit);
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    public long getFootprintBytes() {
+        long bytes = 16 + 4L * chunks.length;
+
+        for (Chunk chunk : chunks) {
+            if (chunk != null) {
+                bytes += 16 + 16 + 4L * courseNames.length * CHUNK_SIZE;
+                bytes += 16 + 16 + (long) courseNames.length * CHUNK_SIZE / 8;
+            }
+        }
+
+        return bytes;
+    }
+
+    private Chunk chunk(long id) {
+        Chunk[] current = chunks;
+        int index = chunkIndex(id);
+        return index < current.length ? current[index] : null;
+    }
+
+    private synchronized Chunk createChunk(int index, boolean fillGaps) {
+        Chunk[] current = chunks;
+
+        if (index < current.length && current[index] != null && !fillGaps) {
+            return current[index];
+        }
+
+        Chunk[] grown = Arrays.copyOf(current, Math.max(current.length, index + 1));
+
+        for (int i = fillGaps ? 0 : index; i <= index; i++) {
+            if (grown[i] == null) {
+                grown[i] = new Chunk(courseNames.length);
+            }
+        }
+
+        chunks = grown;
+        return grown[index];
+    }
+
+    private static int chunkIndex(long id) {
+        return Math.toIntExact(id >>> CHUNK_BITS);
+    }
+
+    private static int offset(long id) {
+        return (int) (id & CHUNK_MASK);
+    }
+
+    private static class Chunk {
+        private final int[] points;
+        private final AtomicLongArray enrolled;
+
+        private Chunk(int courses) {
+            this.points = new int[courses * CHUNK_SIZE];
+            this.enrolled = new AtomicLongArray(courses * CHUNK_SIZE / 64);
+        }
+
+        private boolean isEnrolled(int course, int offset) {
+            int bit = course * CHUNK_SIZE + offset;
+            return (enrolled.get(bit >>> 6) & (1L << bit)) != 0;
+        }
+
+        private boolean enroll(int course, int offset) {
+            int bit = course * CHUNK_SIZE + offset;
+            long mask = 1L << bit;
+
+            while (true) {
+                long word = enrolled.get(bit >>> 6);
+
+                if ((word & mask) != 0) {
+                    return false;
+                }
+                if (enrolled.compareAndSet(bit >>> 6, word, word | mask)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
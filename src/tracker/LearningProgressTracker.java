@@ -1,33 +1,75 @@
 package tracker;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class LearningProgressTracker {
 
-    private static final Scanner scanner = new Scanner(System.in);
     private static final Pattern NAME_PATTERN = Pattern.compile("^(?:\\w+['-]?)+\\w+$");
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[\\w.\\-_]+@[\\w.\\-_]+\\.[\\w]+$");
-    private static final Database database = new Database();
+    private static final String IMPORT_STUDENTS_COMMAND = "import students ";
+    private static final String IMPORT_POINTS_COMMAND = "import points ";
+    private static final int IMPORT_BATCH_SIZE = 10_000;
+    private static final int LEADERBOARD_PAGE_SIZE = 20;
+    private static final int SEARCH_PAGE_SIZE = 20;
+    private static final int COHORT_PAGE_SIZE = 20;
+    private static final String COHORT_USAGE = "Incorrect query. Use 'all', 'enrolled:<course>' or "
+            + "'graduated:<course>' joined by 'and', 'or' or 'andnot', optionally followed by 'count' or 'page <n>'";
+    private static final long ACTIVITY_MAX_WINDOW_MILLIS = 7 * 86_400_000L;
+    private static final int[] DISTRIBUTION_PERCENTILES = {10, 25, 50, 75, 90, 99};
+    private static final ThreadLocal<LineTokenizer> IMPORT_TOKENIZER = ThreadLocal.withInitial(LineTokenizer::new);
+
+    private final TrackerStore database;
+    private final LineSource reader;
+    private final LineTokenizer tokens = new LineTokenizer();
+    private final PrintStream out;
+    private final ReportWriter report;
+    private final TrackerMetrics metrics;
+    private final boolean prompts;
+
+    public LearningProgressTracker() {
+        this(new Database(), System.in, System.out);
+    }
+
+    public LearningProgressTracker(TrackerStore database, InputStream in, PrintStream out) {
+        this(database, new LineReader(in), out, true);
+    }
+
+    public LearningProgressTracker(TrackerStore database, LineSource reader, PrintStream out, boolean prompts) {
+        this.database = database;
+        this.reader = reader;
+        this.out = out;
+        this.report = ReportWriter.of(out);
+        this.metrics = database.getMetrics();
+        this.prompts = prompts;
+    }
 
     public void run() {
-        System.out.println("Learning Progress Tracker");
+        prompt("Learning Progress Tracker");
 
         while (true) {
-            String command = scanner.nextLine().strip();
+            String command = nextLine().strip();
+            long start = System.nanoTime();
 
             switch (command) {
                 case "":
-                    System.out.println("No input.");
+                    out.println("No input.");
                     continue;
                 case "add students":
                     addStudents();
                     break;
                 case "list":
                     printStudentList();
+                    metrics.record(Operation.LIST, start);
                     break;
                 case "add points":
                     addPoints();
@@ -35,286 +77,772 @@ public class LearningProgressTracker {
                 case "find":
                     findStudents();
                     break;
+                case "search":
+                    searchStudents();
+                    break;
+                case "cohort":
+                    queryCohorts();
+                    break;
                 case "statistics":
                     getStatistics();
                     break;
                 case "notify":
                     doNotify();
+                    metrics.record(Operation.NOTIFY, start);
+                    break;
+                case "metrics":
+                    printMetrics();
+                    metrics.record(Operation.METRICS, start);
                     break;
                 case "back":
-                    System.out.println("Enter 'exit' to exit the program.");
+                    out.println("Enter 'exit' to exit the program.");
                     break;
                 case "exit":
-                    System.out.println("Bye!");
+                    prompt("Bye!");
                     return;
                 default:
-                    System.out.println("Error: unknown command!");
+                    if (command.startsWith(IMPORT_STUDENTS_COMMAND)) {
+                        importStudents(command.substring(IMPORT_STUDENTS_COMMAND.length()).strip());
+                        metrics.record(Operation.IMPORT_STUDENTS, start);
+                        break;
+                    }
+                    if (command.startsWith(IMPORT_POINTS_COMMAND)) {
+                        importPoints(command.substring(IMPORT_POINTS_COMMAND.length()).strip());
+                        metrics.record(Operation.IMPORT_POINTS, start);
+                        break;
+                    }
+                    metrics.reject(Rejection.UNKNOWN_COMMAND);
+                    out.println(Rejection.UNKNOWN_COMMAND.getMessage());
             }
         }
     }
 
     private void addStudents() {
-        System.out.println("Enter student credentials or 'back' to return");
+        prompt("Enter student credentials or 'back' to return");
         int counter = 0;
 
         while (true) {
-            String response = scanner.nextLine();
+            readLine();
 
-            if ("back".equals(response)) {
-                System.out.println("Total " + counter + " students have been added.");
+            if (isBack()) {
+                out.println("Total " + counter + " students have been added.");
                 return;
             }
 
-            String[] credentials = response.split("\\s");
+            long start = System.nanoTime();
+            Credentials credentials = reader.getCredentials();
 
-            if (credentials.length < 3) {
-                System.out.println("Incorrect credentials");
-                continue;
+            if (credentials == null) {
+                credentials = parseCredentials(tokens.split(reader.bytes(), 0, reader.length()).toArray());
             }
 
-            String firstName = credentials[0];
-            Matcher nameMatcher = NAME_PATTERN.matcher(firstName);
-
-            if (!nameMatcher.find()) {
-                System.out.println("Incorrect first name.");
-                continue;
+            if (addStudent(credentials)) {
+                counter += 1;
             }
 
-            String lastNames = combineLastNames(Arrays.copyOfRange(credentials, 1, credentials.length - 1));
+            metrics.record(Operation.ADD_STUDENT, start);
+        }
+    }
 
-            if (lastNames.isEmpty()) {
-                System.out.println("Incorrect last name.");
-                continue;
-            }
+    private boolean addStudent(Credentials credentials) {
+        if (!credentials.isValid()) {
+            metrics.reject(credentials.getRejection());
+            out.println(credentials.getError());
+            return false;
+        }
+
+        if (database.register(credentials) == null) {
+            metrics.reject(Rejection.EMAIL_TAKEN);
+            out.println(Rejection.EMAIL_TAKEN.getMessage());
+            return false;
+        }
+
+        out.println("The student has been added.");
+        return true;
+    }
+
+    static Credentials parseCredentials(String[] credentials) {
+        if (credentials.length < 3) {
+            return Credentials.invalid(Rejection.INCORRECT_CREDENTIALS);
+        }
+
+        String firstName = credentials[0];
+        Matcher nameMatcher = NAME_PATTERN.matcher(firstName);
+
+        if (!nameMatcher.find()) {
+            return Credentials.invalid(Rejection.INCORRECT_FIRST_NAME);
+        }
+
+        String lastNames = combineLastNames(Arrays.copyOfRange(credentials, 1, credentials.length - 1));
+
+        if (lastNames.isEmpty()) {
+            return Credentials.invalid(Rejection.INCORRECT_LAST_NAME);
+        }
+
+        String email = credentials[credentials.length - 1];
+        Matcher emailMatcher = EMAIL_PATTERN.matcher(email);
+
+        if (!emailMatcher.find()) {
+            return Credentials.invalid(Rejection.INCORRECT_EMAIL);
+        }
+
+        return Credentials.valid(firstName, lastNames, email);
+    }
+
+    private void importStudents(String fileName) {
+        Path path;
+
+        try {
+            path = Path.of(fileName);
+        } catch (InvalidPathException e) {
+            out.println("Cannot read file: " + fileName);
+            return;
+        }
+
+        int counter = 0;
+        Map<String, Integer> rejected = new TreeMap<>();
+
+        try {
+            database.reserveCapacity(database.getNumberOfStudents() + countRows(path));
+        } catch (IOException e) {
+            out.println("Cannot read file: " + fileName);
+            return;
+        }
 
-            String email = credentials[credentials.length - 1];
-            Matcher emailMatcher = EMAIL_PATTERN.matcher(email);
+        try (InputStream in = Files.newInputStream(path)) {
+            LineReader reader = new LineReader(in);
+            List<byte[]> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
 
-            if (!emailMatcher.find()) {
-                System.out.println("Incorrect email.");
-                continue;
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+
+                batch.add(reader.copy());
+
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    counter += importBatch(batch, rejected);
+                    batch.clear();
+                }
             }
 
-            if (database.studentExists(email)) {
-                System.out.println("This email is already taken.");
-                continue;
+            counter += importBatch(batch, rejected);
+        } catch (IOException e) {
+            out.println("Cannot read file: " + fileName);
+            return;
+        }
+
+        out.println("Total " + counter + " students have been added.");
+
+        if (!rejected.isEmpty()) {
+            out.println("Rejected rows:");
+            rejected.forEach((reason, count) -> out.println(reason + " " + count));
+        }
+    }
+
+    private int importBatch(List<byte[]> lines, Map<String, Integer> rejected) {
+        List<Credentials> parsed = lines.parallelStream()
+                .map(line -> parseCredentials(IMPORT_TOKENIZER.get().splitFields(line, 0, line.length).toArray()))
+                .collect(Collectors.toList());
+
+        int counter = 0;
+
+        for (Credentials credentials : parsed) {
+            if (!credentials.isValid()) {
+                reject(credentials.getRejection(), rejected);
+            } else if (database.register(credentials) == null) {
+                reject(Rejection.EMAIL_TAKEN, rejected);
+            } else {
+                counter += 1;
             }
+        }
 
-            database.addStudent(new User(firstName, lastNames, email));
-            counter += 1;
-            System.out.println("The student has been added.");
+        return counter;
+    }
+
+    private static int countRows(Path path) throws IOException {
+        int rows = 0;
+
+        try (InputStream in = Files.newInputStream(path)) {
+            LineReader reader = new LineReader(in);
+
+            while (reader.next()) {
+                if (!reader.isBlank()) {
+                    rows += 1;
+                }
+            }
         }
+
+        return rows;
+    }
+
+    private void reject(Rejection rejection, Map<String, Integer> rejected) {
+        metrics.reject(rejection);
+        rejected.merge(rejection.getMessage(), 1, Integer::sum);
     }
 
     private void printStudentList() {
-        database.printStudentsList();
+        database.printStudentsList(report);
+        report.flush();
     }
 
     private void addPoints() {
-        System.out.println("Enter an id and points or 'back' to return:");
+        prompt("Enter an id and points or 'back' to return:");
 
         while (true) {
-            String[] response = scanner.nextLine().split("\\s");
+            readLine();
+            PointsEntry entry = reader.getPoints();
+            LineTokenizer response = tokens.split(reader.bytes(), 0, reader.length());
 
-            if ("back".equals(response[0])) {
+            if (response.size() > 0 && response.tokenEquals(0, "back")) {
                 return;
             }
 
-            if (response.length != 5) {
-                System.out.println("Incorrect points format");
-                continue;
-            }
+            long start = System.nanoTime();
+            addPoint(checkStudent(entry == null ? parsePoints(response, database.getNumberOfCourses()) : entry));
+            metrics.record(Operation.ADD_POINTS, start);
+        }
+    }
 
-            long id;
+    private void addPoint(PointsEntry entry) {
 
-            try {
-                id = Long.parseLong(response[0]);
-            } catch (NumberFormatException e) {
-                System.out.println("No student is found for id=" + response[0]);
-                continue;
-            }
+        if (!entry.isValid()) {
+            metrics.reject(entry.getRejection());
+            out.println(entry.getError());
+            return;
+        }
 
-            if (!database.studentExists(id)) {
-                System.out.println("No student is found for id=" + id);
-                continue;
-            }
+        database.update(entry.getId(), entry.getPoints());
+        out.println("Points updated");
+    }
 
-            int pointsJava;
-            int pointsDsa;
-            int pointsDatabase;
-            int pointsSpring;
+    static PointsEntry parsePoints(LineTokenizer response, int courses) {
+        if (response.size() != courses + 1) {
+            return PointsEntry.invalid(Rejection.BAD_POINTS_FORMAT);
+        }
 
-            try {
-                pointsJava = Integer.parseInt(response[1]);
-                pointsDsa = Integer.parseInt(response[2]);
-                pointsDatabase = Integer.parseInt(response[3]);
-                pointsSpring = Integer.parseInt(response[4]);
-            } catch (NumberFormatException e) {
-                System.out.println("Incorrect points format");
-                continue;
+        if (!response.parseLong(0)) {
+            return PointsEntry.unknownId(response.get(0));
+        }
+
+        long id = response.getLong();
+        int[] points = new int[courses];
+
+        for (int i = 0; i < points.length; i++) {
+            if (!response.parseLong(i + 1) || response.getLong() < 0 || response.getLong() > Integer.MAX_VALUE) {
+                return PointsEntry.invalid(id, Rejection.BAD_POINTS_FORMAT);
             }
+            points[i] = (int) response.getLong();
+        }
+
+        return PointsEntry.valid(id, points);
+    }
+
+    private PointsEntry checkStudent(PointsEntry entry) {
+        if (entry.hasId() && !database.studentExists(entry.getId())) {
+            return PointsEntry.unknownId(String.valueOf(entry.getId()));
+        }
+        return entry;
+    }
+
+    private void importPoints(String fileName) {
+        Path path;
+
+        try {
+            path = Path.of(fileName);
+        } catch (InvalidPathException e) {
+            out.println("Cannot read file: " + fileName);
+            return;
+        }
+
+        int counter = 0;
+        Map<String, Integer> rejected = new TreeMap<>();
+
+        try (InputStream in = Files.newInputStream(path)) {
+            LineReader reader = new LineReader(in);
+            List<byte[]> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+
+                batch.add(reader.copy());
 
-            if (pointsJava < 0 || pointsDsa < 0 || pointsDatabase < 0 || pointsSpring < 0) {
-                System.out.println("Incorrect points format");
-                continue;
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    counter += importPointsBatch(batch, rejected);
+                    batch.clear();
+                }
             }
 
-            database.update(id, pointsJava, pointsDsa, pointsDatabase, pointsSpring);
-            System.out.println("Points updated");
+            counter += importPointsBatch(batch, rejected);
+        } catch (IOException e) {
+            out.println("Cannot read file: " + fileName);
+            return;
+        }
+
+        out.println("Total " + counter + " submissions have been applied.");
+
+        if (!rejected.isEmpty()) {
+            out.println("Rejected rows:");
+            rejected.forEach((reason, count) -> out.println(reason + " " + count));
         }
     }
 
+    private int importPointsBatch(List<byte[]> lines, Map<String, Integer> rejected) {
+        List<PointsEntry> parsed = lines.parallelStream()
+                .map(line -> checkStudent(parsePoints(IMPORT_TOKENIZER.get().splitFields(line, 0, line.length),
+                        database.getNumberOfCourses())))
+                .collect(Collectors.toList());
+
+        PointsBatch batch = new PointsBatch(database.getNumberOfCourses());
+        int counter = 0;
+
+        for (PointsEntry entry : parsed) {
+            if (entry.isValid()) {
+                batch.add(entry.getId(), entry.getPoints());
+                counter += 1;
+            } else {
+                reject(entry.getRejection(), rejected);
+            }
+        }
+
+        database.update(batch);
+        return counter;
+    }
+
     public void findStudents() {
-        System.out.println("Enter an id or 'back' to return");
+        prompt("Enter an id or 'back' to return");
 
         while (true) {
-            String response = scanner.nextLine();
+            readLine();
 
-            if ("back".equals(response)) {
+            if (isBack()) {
                 return;
             }
 
-            long id = Long.parseLong(response);
-            User user = database.getStudent(id);
+            long start = System.nanoTime();
+            LineTokenizer response = tokens.whole(reader.bytes(), 0, reader.length());
+            User user = response.parseLong(0) ? database.getStudent(response.getLong()) : null;
 
             if (user == null) {
-                System.out.println("No student is found for id=" + id);
+                String id = response.parseLong(0) ? String.valueOf(response.getLong()) : response.get(0);
+                metrics.reject(Rejection.UNKNOWN_STUDENT);
+                out.println(Rejection.UNKNOWN_STUDENT.getMessage() + " for id=" + id);
             } else {
-                System.out.println(user);
+                out.println(user);
             }
+
+            metrics.record(Operation.FIND, start);
         }
     }
 
-    public void getStatistics() {
-        System.out.println("Type the name of a course to see details or 'back' to quit");
-        List<String> mostPopular = database.getMostPopularCourse();
-        List<String> leastPopular = database.getLeastPopularCourse();
-        List<String> mostActive = database.getMostActiveCourse();
-        List<String> leastActive = database.getLeastActiveCourse();
-        List<String> easiest = database.getEasiestCourse();
-        List<String> hardest = database.getHardestCourse();
-
-        System.out.print("Most popular: ");
-        if (mostPopular.isEmpty()) {
-            System.out.print("n/a");
-        } else {
-            mostPopular.forEach(x -> System.out.print(x + " "));
+    public void searchStudents() {
+        prompt("Enter part of a name or email, '<prefix>*' to match the start, optionally followed by "
+                + "'page <n>', or 'back' to return");
+
+        while (true) {
+            String query = nextLine();
+
+            if ("back".equals(query)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            printSearchResults(query.strip());
+            metrics.record(Operation.SEARCH, start);
         }
-        System.out.println();
+    }
 
-        System.out.print("Least popular: ");
-        if (leastPopular.isEmpty()) {
-            System.out.print("n/a");
-        } else {
-            leastPopular.forEach(x -> System.out.print(x + " "));
+    private void printSearchResults(String line) {
+        String[] query = line.split("\\s+");
+        int page = 1;
+
+        if (query.length == 3 && "page".equals(query[1])) {
+            try {
+                page = Integer.parseInt(query[2]);
+            } catch (NumberFormatException e) {
+                page = 0;
+            }
+        } else if (query.length != 1) {
+            page = 0;
         }
-        System.out.println();
 
-        System.out.print("Highest activity: ");
-        if (mostActive.isEmpty()) {
-            System.out.print("n/a");
-        } else {
-            mostActive.forEach(x -> System.out.print(x + " "));
+        String text = query[0];
+        boolean prefix = text.endsWith("*");
+
+        if (prefix) {
+            text = text.substring(0, text.length() - 1);
         }
-        System.out.println();
 
-        System.out.print("Lowest activity: ");
-        if (leastActive.isEmpty()) {
-            System.out.print("n/a");
-        } else {
-            leastActive.forEach(x -> System.out.print(x + " "));
+        if (page < 1 || text.isEmpty()) {
+            out.println("Incorrect query. Use '<text>', '<prefix>*' or either followed by 'page <n>'");
+            return;
         }
-        System.out.println();
 
-        System.out.print("Easiest course: ");
-        if (easiest.isEmpty()) {
-            System.out.print("n/a");
-        } else {
-            easiest.forEach(x -> System.out.print(x + " "));
+        if (!prefix && text.length() < StudentIndex.MIN_SUBSTRING) {
+            out.println("Enter at least " + StudentIndex.MIN_SUBSTRING
+                    + " characters, or '<prefix>*' to match the start");
+            return;
         }
-        System.out.println();
 
-        System.out.print("Hardest course: ");
-        if (hardest.isEmpty()) {
-            System.out.print("n/a");
-        } else {
-            hardest.forEach(x -> System.out.print(x + " "));
+        long offset = (long) (page - 1) * SEARCH_PAGE_SIZE;
+        List<User> students = offset > Integer.MAX_VALUE ? List.of()
+                : database.search(text, prefix, (int) offset, SEARCH_PAGE_SIZE + 1);
+
+        if (students.isEmpty()) {
+            out.println("No students found");
+            return;
+        }
+
+        for (int i = 0; i < Math.min(students.size(), SEARCH_PAGE_SIZE); i++) {
+            User student = students.get(i);
+            report.append(student.getId()).append(' ')
+                    .append(student.getName()).append(' ')
+                    .append(student.getEmail())
+                    .newLine();
+        }
+
+        if (students.size() > SEARCH_PAGE_SIZE) {
+            report.append("More students found, see page ").append(page + 1).newLine();
+        }
+
+        report.flush();
+    }
+
+    public void queryCohorts() {
+        prompt("Enter a cohort of 'all', 'enrolled:<course>' or 'graduated:<course>' joined by 'and', 'or' or "
+                + "'andnot', optionally followed by 'count' or 'page <n>', or 'back' to return");
+
+        while (true) {
+            String query = nextLine();
+
+            if ("back".equals(query)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            printCohort(query.strip());
+            metrics.record(Operation.COHORT, start);
+        }
+    }
+
+    private void printCohort(String line) {
+        String[] query = line.split("\\s+");
+        String expression = line;
+        boolean count = false;
+        int page = 1;
+
+        if (query.length > 1 && "count".equals(query[query.length - 1])) {
+            count = true;
+            expression = line.substring(0, line.lastIndexOf("count"));
+        } else if (query.length > 2 && "page".equals(query[query.length - 2])) {
+            try {
+                page = Integer.parseInt(query[query.length - 1]);
+            } catch (NumberFormatException e) {
+                page = 0;
+            }
+            expression = line.substring(0, line.lastIndexOf("page"));
+        }
+
+        if (page < 1) {
+            out.println(COHORT_USAGE);
+            return;
+        }
+
+        StudentBitmap cohort;
+
+        try {
+            cohort = CohortQuery.evaluate(database, expression);
+        } catch (IllegalArgumentException e) {
+            out.println("Unknown course".equals(e.getMessage()) ? e.getMessage() : COHORT_USAGE);
+            return;
         }
-        System.out.println();
+
+        if (count) {
+            out.println("Total " + cohort.getCardinality() + " students");
+            return;
+        }
+
+        List<Long> students = cohort.getIds((long) (page - 1) * COHORT_PAGE_SIZE, COHORT_PAGE_SIZE + 1);
+
+        if (students.isEmpty()) {
+            out.println("No students found");
+            return;
+        }
+
+        for (int i = 0; i < Math.min(students.size(), COHORT_PAGE_SIZE); i++) {
+            report.append(students.get(i)).newLine();
+        }
+
+        if (students.size() > COHORT_PAGE_SIZE) {
+            report.append("More students found, see page ").append(page + 1).newLine();
+        }
+
+        report.flush();
+    }
+
+    public void getStatistics() {
+        long start = System.nanoTime();
+        prompt("Type the name of a course to see details or 'back' to quit");
+        CourseStatistics statistics = database.getCourseStatistics();
+        List<String> mostPopular = statistics.getMostPopular();
+        List<String> leastPopular = statistics.getLeastPopular();
+        List<String> mostActive = statistics.getMostActive();
+        List<String> leastActive = statistics.getLeastActive();
+        List<String> easiest = statistics.getEasiest();
+        List<String> hardest = statistics.getHardest();
+
+        printCourseList("Most popular: ", mostPopular);
+        printCourseList("Least popular: ", leastPopular);
+        printCourseList("Highest activity: ", mostActive);
+        printCourseList("Lowest activity: ", leastActive);
+        printCourseList("Easiest course: ", easiest);
+        printCourseList("Hardest course: ", hardest);
+        report.flush();
+        metrics.record(Operation.STATISTICS, start);
 
         while (true) {
-            String courseName = scanner.nextLine();
+            String courseName = nextLine();
 
             if ("back".equals(courseName)) {
                 return;
             }
 
-            if (!database.courseExists(courseName)) {
-                System.out.println("Unknown course");
-                continue;
+            start = System.nanoTime();
+            printCourseDetails(courseName);
+            metrics.record(Operation.COURSE_DETAILS, start);
+        }
+    }
+
+    private void printCourseDetails(String courseName) {
+        if (database.courseExists(courseName)) {
+            printLeaderboard(database.getCourseIndex(courseName), 0, Long.MAX_VALUE);
+            return;
+        }
+
+        String[] query = courseName.split(" ");
+
+        if (query.length == 2 && "activity".equals(query[0])) {
+            printActivity(query[1]);
+            return;
+        }
+
+        if (query.length == 2 && "distribution".equals(query[1]) && database.courseExists(query[0])) {
+            printDistribution(database.getCourseIndex(query[0]));
+            return;
+        }
+
+        if (query.length != 3 || !database.courseExists(query[0])) {
+            out.println("Unknown course");
+            return;
+        }
+
+        int number;
+
+        try {
+            number = Integer.parseInt(query[2]);
+        } catch (NumberFormatException e) {
+            number = 0;
+        }
+
+        if (number < 1 || !("top".equals(query[1]) || "page".equals(query[1]))) {
+            out.println("Incorrect query. Use '<course>', '<course> top <n>' or '<course> page <n>'");
+            return;
+        }
+
+        int course = database.getCourseIndex(query[0]);
+
+        if ("top".equals(query[1])) {
+            printLeaderboard(course, 0, number);
+        } else {
+            printLeaderboard(course, (long) (number - 1) * LEADERBOARD_PAGE_SIZE, LEADERBOARD_PAGE_SIZE);
+        }
+    }
+
+    private void printCourseList(String title, List<String> courses) {
+        report.append(title);
+
+        if (courses.isEmpty()) {
+            report.append("n/a");
+        } else {
+            for (String course : courses) {
+                report.append(course).append(' ');
             }
+        }
+
+        report.newLine();
+    }
+
+    private void printActivity(String window) {
+        long windowMillis = parseWindow(window);
+
+        if (windowMillis <= 0 || windowMillis > ACTIVITY_MAX_WINDOW_MILLIS) {
+            out.println("Incorrect window. Use 'activity <n>m', 'activity <n>h' or 'activity <n>d', up to 7d");
+            return;
+        }
+
+        ActivityReport activity = database.getActivityReport(windowMillis);
+        report.append("Activity in the last ").append(window).newLine();
+        printCourseList("Highest activity: ", activity.getMostActive());
+        printCourseList("Lowest activity: ", activity.getLeastActive());
+        report.println("course submissions points per minute");
+
+        for (int i = 0; i < activity.getCourses().size(); i++) {
+            report.append(activity.getCourses().get(i)).append(' ')
+                    .append(activity.getSubmissions(i)).append(' ')
+                    .append(activity.getPoints(i)).append(' ')
+                    .append(String.format(Locale.ROOT, "%.2f", activity.getSubmissionsPerMinute(i)))
+                    .newLine();
+        }
 
-            System.out.println(courseName);
-            System.out.println("id points completed");
+        report.flush();
+    }
 
-            Course course = database.getCourse(courseName);
-            Map<Long, Integer> grades = course.getGrades();
-            Map<Long, Double> gradesSorted = new LinkedHashMap<>();
+    private void printDistribution(int course) {
+        ScoreDistribution distribution = database.getDistribution(course);
+        int students = (int) distribution.getCount();
+        report.append(database.getCourseName(course)).append(" distribution").newLine();
+        report.append("students: ").append(students)
+                .append(", completion threshold: ").append(database.getMinCompletion(course)).newLine();
+        report.println("percentile points");
+
+        for (int percentile : DISTRIBUTION_PERCENTILES) {
+            report.append('p').append(percentile).append(' ')
+                    .append(distribution.getPercentile(percentile)).newLine();
+        }
 
-            List<Map.Entry<Long, Integer>> mapEntry = new ArrayList<>(grades.entrySet());
-            mapEntry.sort(Comparator.comparing(Map.Entry<Long, Integer>::getValue).reversed().thenComparing(Map.Entry::getKey));
-            mapEntry.forEach(entry -> gradesSorted.put(entry.getKey(), (double) entry.getValue() / course.getMinCompletion() * 100));
+        report.println("progress students reached");
 
-            gradesSorted.forEach((key, value) -> {
-                System.out.print(key + " ");
-                System.out.print(grades.get(key) + " ");
-                System.out.print(BigDecimal.valueOf(value).setScale(1, RoundingMode.HALF_UP) + "%");
-                System.out.println();
-            });
+        for (int band = 0; band <= distribution.getBands(); band++) {
+            report.append(band * 100L / distribution.getBands()).append("% ")
+                    .append(distribution.getBand(band)).append(' ')
+                    .appendPercent((int) distribution.getReached(band), students)
+                    .newLine();
         }
+
+        report.flush();
+    }
+
+    private static long parseWindow(String window) {
+        if (window.length() < 2 || window.length() > 8) {
+            return -1;
+        }
+
+        long unit;
+
+        switch (window.charAt(window.length() - 1)) {
+            case 'm':
+                unit = 60_000;
+                break;
+            case 'h':
+                unit = 3_600_000;
+                break;
+            case 'd':
+                unit = 86_400_000;
+                break;
+            default:
+                return -1;
+        }
+
+        long amount = 0;
+
+        for (int i = 0; i < window.length() - 1; i++) {
+            char c = window.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            amount = amount * 10 + (c - '0');
+        }
+
+        return amount * unit;
+    }
+
+    private void printLeaderboard(int course, long offset, long limit) {
+        report.println(database.getCourseName(course));
+        report.println("id points completed");
+        int minCompletion = database.getMinCompletion(course);
+
+        database.forEachRanked(course, offset, limit, (id, points) -> report.append(id).append(' ')
+                .append(points).append(' ')
+                .appendPercent(points, minCompletion)
+                .newLine());
+        report.flush();
     }
 
     public void doNotify() {
-        Set<Long> javaGrad = database.getCourse("Java").getGraduates();
-        Set<Long> dsaGrad = database.getCourse("DSA").getGraduates();
-        Set<Long> databaseGrad = database.getCourse("Databases").getGraduates();
-        Set<Long> springGrad = database.getCourse("Spring").getGraduates();
-
-        javaGrad.forEach(x -> {
-            User user = database.getStudent(x);
-            System.out.println("To: " + user.getEmail());
-            System.out.println("Re: " + "Your Learning Progress");
-            System.out.println("Hello, " + user.getName() + "! You have accomplished our Java course!");
-        });
-
-        dsaGrad.forEach(x -> {
-            User user = database.getStudent(x);
-            System.out.println("To: " + user.getEmail());
-            System.out.println("Re: " + "Your Learning Progress");
-            System.out.println("Hello, " + user.getName() + "! You have accomplished our DSA course!");
-        });
-
-        databaseGrad.forEach(x -> {
-            User user = database.getStudent(x);
-            System.out.println("To: " + user.getEmail());
-            System.out.println("Re: " + "Your Learning Progress");
-            System.out.println("Hello, " + user.getName() + "! You have accomplished our Databases course!");
-        });
-
-        springGrad.forEach(x -> {
-            User user = database.getStudent(x);
-            System.out.println("To: " + user.getEmail());
-            System.out.println("Re: " + "Your Learning Progress");
-            System.out.println("Hello, " + user.getName() + "! You have accomplished our Spring course!");
-        });
-
-        javaGrad.addAll(dsaGrad);
-        javaGrad.addAll(databaseGrad);
-        javaGrad.addAll(springGrad);
-        System.out.println("Total " + javaGrad.size() + " students have been notified.");
-    }
-
-    private String combineLastNames(String[] names) {
+        try {
+            NotificationOutbox.DispatchResult result = database.notifyGraduates(new ConsoleNotificationSink(report));
+            report.append("Total ").append(result.getStudents()).append(" students have been notified.").newLine();
+        } catch (IOException e) {
+            report.append("Notification delivery failed: ").append(String.valueOf(e.getMessage())).newLine();
+        }
+
+        report.flush();
+    }
+
+    private void printMetrics() {
+        report.println("operation count p50 p99 p999 max (microseconds)");
+
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram latency = metrics.getLatency(operation);
+            report.append(operation.name()).append(' ')
+                    .append(latency.getCount()).append(' ')
+                    .append(latency.getPercentile(50) / 1_000).append(' ')
+                    .append(latency.getPercentile(99) / 1_000).append(' ')
+                    .append(latency.getPercentile(99.9) / 1_000).append(' ')
+                    .append(latency.getMax() / 1_000)
+                    .newLine();
+        }
+
+        report.println("Rejections:");
+
+        for (Rejection rejection : Rejection.values()) {
+            report.append(rejection.name()).append(' ').append(metrics.getRejections(rejection)).newLine();
+        }
+
+        report.println("Graduations:");
+
+        for (int i = 0; i < database.getNumberOfCourses(); i++) {
+            report.append(database.getCourseName(i)).append(' ').append(metrics.getGraduations(i)).newLine();
+        }
+
+        report.append("Notifications delivered: ").append(database.getDeliveredNotifications())
+                .append(", pending: ").append(database.getPendingNotifications()).newLine();
+        report.flush();
+    }
+
+    private void prompt(String message) {
+        if (prompts) {
+            out.println(message);
+        }
+    }
+
+    private boolean isBack() {
+        return tokens.whole(reader.bytes(), 0, reader.length()).tokenEquals(0, "back");
+    }
+
+    private String nextLine() {
+        readLine();
+        return tokens.whole(reader.bytes(), 0, reader.length()).get(0);
+    }
+
+    private void readLine() {
+        try {
+            if (!reader.ready()) {
+                out.flush();
+            }
+
+            if (!reader.next()) {
+                throw new NoSuchElementException("No line found");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String combineLastNames(String[] names) {
         StringBuilder builder = new StringBuilder();
 
         for (String name : names) {
@@ -0,0 +1,116 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class LineReader implements LineSource {
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private byte[] line = new byte[256];
+    private int length;
+
+    public LineReader(InputStream in) {
+        this(in, 1 << 16);
+    }
+
+    public LineReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        length = 0;
+
+        while (true) {
+            if (position == limit && !fill()) {
+                return length > 0;
+            }
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+
+                if (buffer[position] == '\n') {
+                    position += 1;
+                    continue;
+                }
+            }
+
+            int start = position;
+
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position += 1;
+            }
+
+            append(start, position);
+
+            if (position < limit) {
+                skipLineFeed = buffer[position] == '\r';
+                position += 1;
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return position < limit || in.available() > 0;
+    }
+
+    @Override
+    public byte[] bytes() {
+        return line;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    public boolean isBlank() {
+        for (int i = 0; i < length; i++) {
+            if (!LineTokenizer.isStripped(line[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public byte[] copy() {
+        return Arrays.copyOf(line, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void append(int from, int to) {
+        int count = to - from;
+
+        if (length + count > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+        }
+
+        System.arraycopy(buffer, from, line, length, count);
+        length += count;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+
+        if (read <= 0) {
+            return false;
+        }
+
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
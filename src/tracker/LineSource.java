@@ -0,0 +1,21 @@
+package tracker;
+
+import java.io.IOException;
+
+public interface LineSource {
+    boolean next() throws IOException;
+
+    boolean ready() throws IOException;
+
+    byte[] bytes();
+
+    int length();
+
+    default Credentials getCredentials() {
+        return null;
+    }
+
+    default PointsEntry getPoints() {
+        return null;
+    }
+}
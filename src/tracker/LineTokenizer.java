@@ -0,0 +1,175 @@
+package tracker;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class LineTokenizer {
+    private byte[] bytes;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int count;
+    private long number;
+
+    public LineTokenizer split(byte[] bytes, int from, int to) {
+        this.bytes = bytes;
+        count = 0;
+        int start = from;
+
+        for (int i = from; i < to; i++) {
+            if (isSeparator(bytes[i])) {
+                add(start, i);
+                start = i + 1;
+            }
+        }
+
+        add(start, to);
+        removeTrailingEmpty();
+        return this;
+    }
+
+    public LineTokenizer splitFields(byte[] bytes, int from, int to) {
+        this.bytes = bytes;
+        count = 0;
+
+        while (from < to && isStripped(bytes[from])) {
+            from += 1;
+        }
+        while (to > from && isStripped(bytes[to - 1])) {
+            to -= 1;
+        }
+
+        int start = from;
+        int i = from;
+
+        while (i < to) {
+            if (isSeparator(bytes[i]) || bytes[i] == ',') {
+                add(start, i);
+
+                while (i < to && (isSeparator(bytes[i]) || bytes[i] == ',')) {
+                    i += 1;
+                }
+                start = i;
+            } else {
+                i += 1;
+            }
+        }
+
+        add(start, to);
+        removeTrailingEmpty();
+        return this;
+    }
+
+    public LineTokenizer whole(byte[] bytes, int from, int to) {
+        this.bytes = bytes;
+        count = 0;
+        add(from, to);
+        return this;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean tokenEquals(int token, String ascii) {
+        int start = starts[token];
+
+        if (ascii.length() != ends[token] - start) {
+            return false;
+        }
+
+        for (int i = 0; i < ascii.length(); i++) {
+            if (bytes[start + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public String get(int token) {
+        return new String(bytes, starts[token], ends[token] - starts[token], StandardCharsets.UTF_8);
+    }
+
+    public String[] toArray() {
+        String[] tokens = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            tokens[i] = get(i);
+        }
+
+        return tokens;
+    }
+
+    public boolean parseLong(int token) {
+        int i = starts[token];
+        int end = ends[token];
+
+        if (i == end) {
+            return false;
+        }
+
+        boolean negative = bytes[i] == '-';
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+
+        if (negative || bytes[i] == '+') {
+            if (++i == end) {
+                return false;
+            }
+        }
+
+        long multiplyLimit = limit / 10;
+        long result = 0;
+
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                return false;
+            }
+
+            result *= 10;
+
+            if (result < limit + digit) {
+                return false;
+            }
+
+            result -= digit;
+        }
+
+        number = negative ? result : -result;
+        return true;
+    }
+
+    public long getLong() {
+        return number;
+    }
+
+    private void removeTrailingEmpty() {
+        if (count == 1) {
+            return;
+        }
+
+        while (count > 0 && starts[count - 1] == ends[count - 1]) {
+            count -= 1;
+        }
+    }
+
+    private void add(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+
+        starts[count] = start;
+        ends[count] = end;
+        count += 1;
+    }
+
+    static boolean isSeparator(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r');
+    }
+
+    static boolean isStripped(byte b) {
+        return isSeparator(b) || (b >= 0x1C && b <= 0x1F);
+    }
+}
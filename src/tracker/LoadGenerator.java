@@ -0,0 +1,453 @@
+package tracker;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+public class LoadGenerator {
+    private static final String[] FIRST_NAMES = {"John", "Mary", "Anne-Marie", "Peter", "Maria", "James", "Linda",
+            "Jean-Luc", "Elena", "David", "Sofia", "Michael", "D'Arcy", "Daniel", "Laura", "Thomas", "Olga", "Wei"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Brown", "Garcia", "Miller", "O'Neil", "Wilson",
+            "Smith-Jones", "Taylor", "van Dijk", "Martin", "Lee", "de la Cruz", "Hall", "Young", "King", "Lopez"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "hyperskill.org", "mail.ru"};
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String ADDED = "The student has been added.";
+    private static final String UPDATED = "Points updated";
+
+    private final int students;
+    private final int clients;
+    private final double rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final double[] courseWeights;
+    private final int[] minCompletion;
+    private final double graduationRate;
+    private final long seed;
+
+    private final LatencyHistogram registrationTimes = new LatencyHistogram();
+    private final LatencyHistogram responseTimes = new LatencyHistogram();
+    private final LatencyHistogram serviceTimes = new LatencyHistogram();
+    private final LatencyHistogram gcPauses = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean measuring;
+
+    private LoadGenerator(Database database, int students, int clients, double rate, long warmupSeconds,
+                          long durationSeconds, double skew, double graduationRate, long seed) {
+        this.students = students;
+        this.clients = clients;
+        this.rate = rate;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.graduationRate = graduationRate;
+        this.seed = seed;
+
+        int courses = database.getNumberOfCourses();
+        this.courseWeights = new double[courses];
+        this.minCompletion = new int[courses];
+        double total = 0;
+
+        for (int course = 0; course < courses; course++) {
+            total += 1 / Math.pow(course + 1, skew);
+            courseWeights[course] = total;
+            minCompletion[course] = database.getCourse(course).getMinCompletion();
+        }
+        for (int course = 0; course < courses; course++) {
+            courseWeights[course] /= total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int students = 100_000;
+        int clients = 64;
+        double rate = 20_000;
+        long warmup = 10;
+        long duration = 60;
+        long reportInterval = 10;
+        double skew = 1.0;
+        double graduationRate = 0.05;
+        long seed = 42;
+        Path logPath = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--students":
+                    students = Integer.parseInt(args[++i]);
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[++i]);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Long.parseLong(args[++i]);
+                    break;
+                case "--duration":
+                    duration = Long.parseLong(args[++i]);
+                    break;
+                case "--report-interval":
+                    reportInterval = Long.parseLong(args[++i]);
+                    break;
+                case "--skew":
+                    skew = Double.parseDouble(args[++i]);
+                    break;
+                case "--graduation":
+                    graduationRate = Double.parseDouble(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--wal":
+                    logPath = Path.of(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        try (Database database = logPath == null ? new Database(students)
+                : Database.open(logPath, WriteAheadLog.Durability.GROUP_COMMIT)) {
+            LoadGenerator generator = new LoadGenerator(database, students, clients, rate, warmup, duration, skew,
+                    graduationRate, seed);
+            generator.run(database, reportInterval);
+        }
+    }
+
+    private void run(Database database, long reportInterval) throws Exception {
+        listenForPauses();
+
+        try (TrackerServer server = new TrackerServer(database, 0);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.start();
+            int port = server.getPort();
+
+            long firstId = User.getLastId() + 1;
+            register(executor, port);
+            long lastId = User.getLastId();
+
+            long heapBefore = usedHeapAfterGc();
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+            ScheduledExecutorService reporter = startReporter(reportInterval);
+            long start = System.nanoTime();
+
+            try {
+                submitPoints(executor, port, firstId, lastId, start);
+            } finally {
+                reporter.shutdownNow();
+                measuring = false;
+            }
+
+            long heapPeak = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                    .sum();
+
+            long heapAfter = usedHeapAfterGc();
+            printSummary(database, heapBefore, heapAfter, heapPeak);
+        }
+    }
+
+    private void register(ExecutorService executor, int port) throws Exception {
+        List<Future<Integer>> results = new ArrayList<>(clients);
+        long start = System.nanoTime();
+
+        for (int client = 0; client < clients; client++) {
+            int first = client;
+            results.add(executor.submit(() -> registerStudents(port, first)));
+        }
+
+        long added = 0;
+        for (Future<Integer> result : results) {
+            added += result.get();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Registered %d of %d students over %d connections in %.2f s -> %.0f commands/s%n",
+                added, students, clients, seconds, students / seconds);
+        printLatency("Registration (ms)", registrationTimes);
+    }
+
+    private int registerStudents(int port, int client) throws IOException {
+        int added = 0;
+
+        try (Session session = new Session(port)) {
+            session.call("add students");
+
+            for (int student = client; student < students; student += clients) {
+                long start = System.nanoTime();
+                String response = session.call(credentials(student));
+                registrationTimes.record(System.nanoTime() - start);
+
+                if (ADDED.equals(response)) {
+                    added += 1;
+                }
+            }
+
+            session.call("back");
+        }
+
+        return added;
+    }
+
+    private void submitPoints(ExecutorService executor, int port, long firstId, long lastId, long start)
+            throws Exception {
+        List<Future<?>> results = new ArrayList<>(clients);
+        System.out.printf(Locale.ROOT, "Submitting points at %.0f commands/s for %d s after %d s warmup%n",
+                rate, TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos));
+
+        for (int client = 0; client < clients; client++) {
+            int current = client;
+            results.add(executor.submit(() -> {
+                submitPoints(port, current, firstId, lastId, start);
+                return null;
+            }));
+        }
+
+        for (Future<?> result : results) {
+            result.get();
+        }
+    }
+
+    private void submitPoints(int port, int client, long firstId, long lastId, long start) throws IOException {
+        long owned = Math.max(0, (lastId - firstId - client) / clients + 1);
+
+        if (owned == 0) {
+            return;
+        }
+
+        int courses = minCompletion.length;
+        int[] totals = new int[Math.toIntExact(owned * courses)];
+        SplittableRandom random = new SplittableRandom(seed * 31 + client);
+        long interval = (long) (clients * 1e9 / rate);
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+
+        try (Session session = new Session(port)) {
+            session.call("add points");
+            StringBuilder line = new StringBuilder();
+
+            for (long intended = start + interval * client / clients; intended < end; intended += interval) {
+                long student = random.nextLong(owned);
+                long id = firstId + client + student * clients;
+                int course = pickCourse(random.nextDouble());
+                int slot = Math.toIntExact(student * courses + course);
+                int points = nextPoints(random, id, course, totals[slot]);
+                totals[slot] += points;
+
+                line.setLength(0);
+                line.append(id);
+                for (int i = 0; i < courses; i++) {
+                    line.append(' ').append(i == course ? points : 0);
+                }
+
+                long now = System.nanoTime();
+                if (intended > now) {
+                    LockSupport.parkNanos(intended - now);
+                }
+
+                long begin = System.nanoTime();
+                String response = session.call(line);
+                long done = System.nanoTime();
+                sent.incrementAndGet();
+
+                if (intended >= measureFrom) {
+                    responseTimes.record(done - intended);
+                    serviceTimes.record(done - begin);
+                    completed.incrementAndGet();
+
+                    if (!UPDATED.equals(response)) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }
+
+            session.send("back");
+        }
+    }
+
+    private int pickCourse(double value) {
+        for (int course = 0; course < courseWeights.length - 1; course++) {
+            if (value < courseWeights[course]) {
+                return course;
+            }
+        }
+        return courseWeights.length - 1;
+    }
+
+    private int nextPoints(SplittableRandom random, long id, int course, int total) {
+        int target = minCompletion[course];
+
+        if (graduates(id, course)) {
+            return 1 + random.nextInt(Math.max(1, target / 2));
+        }
+
+        int points = 1 + random.nextInt(Math.max(1, target / 50));
+        return Math.max(0, Math.min(points, target - 1 - total));
+    }
+
+    private boolean graduates(long id, int course) {
+        long hash = (id * 0x9E3779B97F4A7C15L + course) * 0xBF58476D1CE4E5B9L;
+        return (hash >>> 11) * 0x1.0p-53 < graduationRate;
+    }
+
+    private static String credentials(int student) {
+        String firstName = FIRST_NAMES[student % FIRST_NAMES.length];
+        String lastName = LAST_NAMES[student / FIRST_NAMES.length % LAST_NAMES.length];
+        String local = (firstName + '.' + lastName).replaceAll("[^\\w.]", "").toLowerCase(Locale.ROOT);
+        return firstName + ' ' + lastName + ' ' + local + student + '@' + DOMAINS[student % DOMAINS.length];
+    }
+
+    private ScheduledExecutorService startReporter(long intervalSeconds) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-generator-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        long[] previous = {0, 0};
+
+        executor.scheduleAtFixedRate(() -> {
+            long commands = sent.get();
+            long pauses = gcPauses.getCount();
+            System.out.printf(Locale.ROOT, "t=%4ds %10.0f commands/s  heap %8.1f MiB  %4d GC pauses%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                    (double) (commands - previous[0]) / intervalSeconds,
+                    mebibytes(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed()),
+                    pauses - previous[1]);
+            previous[0] = commands;
+            previous[1] = pauses;
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        executor.schedule(() -> {
+            measuring = true;
+        }, warmupNanos, TimeUnit.NANOSECONDS);
+        return executor;
+    }
+
+    private void listenForPauses() {
+        NotificationListener listener = (notification, handback) -> {
+            if (measuring && GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION
+                    .equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                gcPauses.record(TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getDuration()));
+            }
+        };
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+            }
+        }
+    }
+
+    private void printSummary(Database database, long heapBefore, long heapAfter, long heapPeak) {
+        double seconds = durationNanos / 1e9;
+        long commands = completed.get();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-24s %.0f commands/s (%d commands, %d rejected, target %.0f/s)%n",
+                "Sustained throughput", commands / seconds, commands, rejected.get(), rate);
+        printLatency("Response time (ms)", responseTimes);
+        printLatency("Service time (ms)", serviceTimes);
+        System.out.printf(Locale.ROOT, "%-24s start %.1f MiB  end %.1f MiB  growth %.1f MiB  peak %.1f MiB%n",
+                "Heap after GC", mebibytes(heapBefore), mebibytes(heapAfter), mebibytes(heapAfter - heapBefore),
+                mebibytes(heapPeak));
+        System.out.printf(Locale.ROOT, "%-24s %d pauses", "GC pauses", gcPauses.getCount());
+        if (gcPauses.getCount() > 0) {
+            System.out.printf(Locale.ROOT, "  p50 %.0f ms  p99 %.0f ms  max %.0f ms",
+                    gcPauses.getPercentile(50) / 1e6, gcPauses.getPercentile(99) / 1e6, gcPauses.getMax() / 1e6);
+        }
+        System.out.println();
+
+        for (int course = 0; course < database.getNumberOfCourses(); course++) {
+            Course current = database.getCourse(course);
+            int enrolled = current.getNumberOfStudents();
+            long graduated = current.getGraduatedStudents().getCardinality();
+            System.out.printf(Locale.ROOT, "%-24s %d enrolled, %d graduated (%.1f%%)%n",
+                    current.getName(), enrolled, graduated, enrolled == 0 ? 0.0 : 100.0 * graduated / enrolled);
+        }
+    }
+
+    private static void printLatency(String name, LatencyHistogram histogram) {
+        System.out.printf(Locale.ROOT, "%-24s", name);
+        for (double percentile : PERCENTILES) {
+            System.out.printf(Locale.ROOT, " p%s %.3f", percentile % 1 == 0 ? String.valueOf((int) percentile)
+                    : String.valueOf(percentile), histogram.getPercentile(percentile) / 1e6);
+        }
+        System.out.printf(Locale.ROOT, " max %.3f%n", histogram.getMax() / 1e6);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double mebibytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static class Session implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final Writer writer;
+
+        Session(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            reader.readLine();
+        }
+
+        void send(CharSequence command) throws IOException {
+            writer.append(command).append('\n');
+            writer.flush();
+        }
+
+        String call(CharSequence command) throws IOException {
+            send(command);
+            return reader.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (socket) {
+                call("exit");
+            }
+        }
+    }
+}
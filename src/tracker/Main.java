@@ -1,8 +1,182 @@
 package tracker;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+
 public class Main {
-    public static void main(String[] args) {
-        LearningProgressTracker lpt = new LearningProgressTracker();
-        lpt.run();
+    public static void main(String[] args) throws IOException {
+        boolean server = false;
+        boolean jmx = false;
+        boolean batch = false;
+        boolean prompts = true;
+        Path scriptPath = null;
+        int port = TrackerServer.DEFAULT_PORT;
+        Path logPath = null;
+        Path snapshotPath = null;
+        long snapshotInterval = 300;
+        Path notificationPath = null;
+        CourseRegistry courses = CourseRegistry.defaults();
+        int outboxCapacity = 100_000;
+        int shards = 1;
+        WriteAheadLog.Durability durability = WriteAheadLog.Durability.GROUP_COMMIT;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--server":
+                    server = true;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        port = Integer.parseInt(args[++i]);
+                    }
+                    break;
+                case "--wal":
+                    logPath = Path.of(args[++i]);
+                    break;
+                case "--durability":
+                    durability = WriteAheadLog.Durability.valueOf(args[++i].toUpperCase(Locale.ROOT).replace('-', '_'));
+                    break;
+                case "--snapshot":
+                    snapshotPath = Path.of(args[++i]);
+                    break;
+                case "--snapshot-interval":
+                    snapshotInterval = Long.parseLong(args[++i]);
+                    break;
+                case "--notify-file":
+                    notificationPath = Path.of(args[++i]);
+                    break;
+                case "--outbox-capacity":
+                    outboxCapacity = Integer.parseInt(args[++i]);
+                    break;
+                case "--shards":
+                    shards = Integer.parseInt(args[++i]);
+                    break;
+                case "--courses":
+                    courses = CourseRegistry.load(Path.of(args[++i]));
+                    break;
+                case "--batch":
+                    batch = true;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        scriptPath = Path.of(args[++i]);
+                    }
+                    break;
+                case "--quiet":
+                    prompts = false;
+                    break;
+                case "--jmx":
+                    jmx = true;
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        TrackerStore database = open(logPath, durability, snapshotPath, courses, shards);
+
+        if (jmx) {
+            try {
+                database.getMetrics().registerMBeans(database);
+            } catch (JMException e) {
+                System.err.println("Failed to register JMX beans: " + e.getMessage());
+            }
+        }
+
+        if (notificationPath != null) {
+            database.startNotifications(new FileNotificationSink(notificationPath), outboxCapacity, 1_000);
+        }
+
+        ScheduledExecutorService snapshots = snapshotPath == null ? null : startSnapshots(database, snapshotPath, snapshotInterval);
+        Path finalSnapshotPath = snapshotPath;
+
+        if (server) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(database, snapshots, finalSnapshotPath)));
+            TrackerServer trackerServer = new TrackerServer(database, port);
+            System.out.println("Learning Progress Tracker server listening on port " + trackerServer.getPort());
+            trackerServer.serve();
+            return;
+        }
+
+        try {
+            if (batch) {
+                runBatch(database, scriptPath, prompts);
+            } else {
+                LearningProgressTracker lpt = new LearningProgressTracker(database, System.in, System.out);
+                lpt.run();
+            }
+        } finally {
+            shutdown(database, snapshots, snapshotPath);
+        }
+    }
+
+    private static TrackerStore open(Path logPath, WriteAheadLog.Durability durability, Path snapshotPath,
+                                     CourseRegistry courses, int shards) throws IOException {
+        if (shards > 1) {
+            return logPath == null && snapshotPath == null ? new ShardedDatabase(courses, shards)
+                    : ShardedDatabase.open(logPath, durability, snapshotPath, courses, shards);
+        }
+
+        return logPath == null && snapshotPath == null
+                ? new Database(courses, 16) : Database.open(logPath, durability, snapshotPath, courses);
+    }
+
+    private static void runBatch(TrackerStore database, Path scriptPath, boolean prompts) throws IOException {
+        InputStream in = scriptPath == null ? System.in : Files.newInputStream(scriptPath);
+        int parallelism = Runtime.getRuntime().availableProcessors();
+
+        try (in;
+             ScriptPipeline script = new ScriptPipeline(in, database.getNumberOfCourses(), parallelism);
+             AsyncOutputStream output = new AsyncOutputStream(System.out)) {
+            PrintStream out = new PrintStream(output, false, System.out.charset());
+
+            try {
+                new LearningProgressTracker(database, script, out, prompts).run();
+            } catch (NoSuchElementException e) {
+                // a script may end without 'exit'
+            }
+
+            out.flush();
+            output.drain();
+        }
+    }
+
+    private static ScheduledExecutorService startSnapshots(TrackerStore database, Path path, long intervalSeconds) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracker-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.scheduleWithFixedDelay(() -> writeSnapshot(database, path), intervalSeconds, intervalSeconds,
+                TimeUnit.SECONDS);
+        return executor;
+    }
+
+    private static void writeSnapshot(TrackerStore database, Path path) {
+        try {
+            database.writeSnapshot(path);
+        } catch (IOException e) {
+            System.err.println("Failed to write snapshot: " + e.getMessage());
+        }
+    }
+
+    private static void shutdown(TrackerStore database, ScheduledExecutorService snapshots, Path snapshotPath) {
+        if (snapshots != null) {
+            snapshots.shutdownNow();
+            writeSnapshot(database, snapshotPath);
+        }
+
+        try {
+            database.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close write-ahead log: " + e.getMessage());
+        }
     }
 }
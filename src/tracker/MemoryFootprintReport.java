@@ -0,0 +1,150 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MemoryFootprintReport {
+    private static final String[] COURSES = CourseRegistry.defaults().getNames();
+    private static final String[] FIRST_NAMES = {"John", "Mary", "Anna", "Peter", "Maria", "James", "Linda", "Robert",
+            "Elena", "David", "Sofia", "Michael", "Olga", "Daniel", "Laura", "Thomas"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Brown", "Garcia", "Miller", "Davis", "Wilson",
+            "Anderson", "Taylor", "Moore", "Martin", "Lee", "Walker", "Hall", "Young", "King", "Wright", "Lopez"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "hyperskill.org", "mail.ru"};
+
+    public static void main(String[] args) {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long enrollments = (long) students * COURSES.length;
+
+        long before = usedHeap();
+        Object boxed = boxedLayout(students);
+        long boxedBytes = usedHeap() - before;
+        keep(boxed);
+        boxed = null;
+
+        before = usedHeap();
+        GradeStore columnar = columnarLayout(students);
+        long columnarBytes = usedHeap() - before;
+        keep(columnar);
+
+        System.out.println("Grade storage for " + students + " students in " + COURSES.length + " courses");
+        print("Boxed maps (Course.grades + User.grades)", boxedBytes, enrollments);
+        print("Columnar GradeStore (measured)", columnarBytes, enrollments);
+        print("Columnar GradeStore (estimated)", columnar.getFootprintBytes(), enrollments);
+
+        before = usedHeap();
+        Object objects = objectDirectory(students, columnar);
+        long objectBytes = usedHeap() - before;
+        keep(objects);
+        objects = null;
+
+        before = usedHeap();
+        StudentDirectory directory = new StudentDirectory(columnar);
+        EmailIndex emails = new EmailIndex(directory);
+        fillDirectory(students, directory, emails);
+        long directoryBytes = usedHeap() - before;
+        keep(emails);
+
+        System.out.println();
+        System.out.println("Student records for " + students + " students");
+        printPerStudent("User objects + email map", objectBytes, students);
+        printPerStudent("StudentDirectory + EmailIndex", directoryBytes, students);
+        printPerStudent("StudentDirectory record bytes", directory.getRecordBytes(), students);
+    }
+
+    private static Object objectDirectory(int students, GradeStore grades) {
+        Map<Long, User> users = new ConcurrentHashMap<>();
+        Map<String, Long> emails = new ConcurrentHashMap<>();
+
+        for (long id = 1; id <= students; id++) {
+            User user = new User(id, new String(firstName(id)), new String(lastName(id)), email(id), grades);
+            users.put(id, user);
+            emails.put(Database.normalizeEmail(user.getEmail()), id);
+        }
+
+        return new Object[]{users, emails};
+    }
+
+    private static void fillDirectory(int students, StudentDirectory directory, EmailIndex emails) {
+        for (long id = 1; id <= students; id++) {
+            String email = email(id);
+            directory.add(new User(id, new String(firstName(id)), new String(lastName(id)), email, null));
+            emails.put(Database.normalizeEmail(email), id);
+        }
+    }
+
+    private static String firstName(long id) {
+        return FIRST_NAMES[(int) (id % FIRST_NAMES.length)];
+    }
+
+    private static String lastName(long id) {
+        return LAST_NAMES[(int) (id * 7 % LAST_NAMES.length)];
+    }
+
+    private static String email(long id) {
+        return firstName(id).toLowerCase() + "." + lastName(id).toLowerCase() + id + "@"
+                + DOMAINS[(int) (id % DOMAINS.length)];
+    }
+
+    private static Object boxedLayout(int students) {
+        List<Map<Long, Integer>> courseGrades = new ArrayList<>();
+        List<Map<String, Integer>> userGrades = new ArrayList<>(students);
+
+        for (String ignored : COURSES) {
+            courseGrades.add(new HashMap<>());
+        }
+
+        for (long id = 1; id <= students; id++) {
+            Map<String, Integer> grades = new HashMap<>();
+
+            for (int course = 0; course < COURSES.length; course++) {
+                int points = (int) ((id * 31 + course) % 1000);
+                courseGrades.get(course).put(id, points);
+                grades.put(COURSES[course], points);
+            }
+
+            userGrades.add(grades);
+        }
+
+        return new Object[]{courseGrades, userGrades};
+    }
+
+    private static GradeStore columnarLayout(int students) {
+        GradeStore store = new GradeStore(COURSES);
+        store.reserveCapacity(students + 1);
+
+        for (long id = 1; id <= students; id++) {
+            for (int course = 0; course < COURSES.length; course++) {
+                store.addPoints(course, id, (int) ((id * 31 + course) % 1000));
+            }
+        }
+
+        return store;
+    }
+
+    private static void print(String layout, long bytes, long enrollments) {
+        System.out.printf("%-42s %,14d bytes  %6.1f bytes/enrollment%n", layout, bytes, (double) bytes / enrollments);
+    }
+
+    private static void printPerStudent(String layout, long bytes, int students) {
+        System.out.printf("%-42s %,14d bytes  %6.1f bytes/student%n", layout, bytes, (double) bytes / students);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void keep(Object o) {
+        if (o.hashCode() == System.nanoTime()) {
+            System.out.println();
+        }
+    }
+}
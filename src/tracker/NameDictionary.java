@@ -0,0 +1,45 @@
+package tracker;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class NameDictionary {
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size;
+
+    public int encode(String value) {
+        Integer code = codes.get(value);
+
+        if (code != null) {
+            return code;
+        }
+
+        synchronized (this) {
+            code = codes.get(value);
+
+            if (code != null) {
+                return code;
+            }
+
+            String[] current = values;
+
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+                values = current;
+            }
+
+            current[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,31 @@
+package tracker;
+
+public class Notification {
+    private final long studentId;
+    private final String email;
+    private final String name;
+    private final String courseName;
+
+    public Notification(long studentId, String email, String name, String courseName) {
+        this.studentId = studentId;
+        this.email = email;
+        this.name = name;
+        this.courseName = courseName;
+    }
+
+    public long getStudentId() {
+        return studentId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+}
@@ -0,0 +1,290 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NotificationOutbox implements AutoCloseable {
+    private static final int COURSE_SHIFT = 40;
+    private static final long ID_MASK = (1L << COURSE_SHIFT) - 1;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long INITIAL_BACKOFF_MILLIS = 50;
+
+    private final Database database;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Object> inFlight = new ConcurrentHashMap<>();
+    private final LinkedBlockingDeque<Long> queue = new LinkedBlockingDeque<>();
+    private final AtomicLong delivered = new AtomicLong();
+    private final Object space = new Object();
+    private volatile int capacity = Integer.MAX_VALUE;
+    private volatile NotificationSink sink;
+    private volatile Thread dispatcher;
+
+    public NotificationOutbox(Database database) {
+        this.database = database;
+    }
+
+    public void enqueue(long id, int course) {
+        long event = event(id, course);
+
+        if (!pending.add(event)) {
+            return;
+        }
+
+        queue.addLast(event);
+    }
+
+    public void awaitCapacity() {
+        if (queue.size() < capacity) {
+            return;
+        }
+
+        synchronized (space) {
+            while (queue.size() >= capacity && dispatcher != null) {
+                try {
+                    space.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public void start(NotificationSink sink, int capacity, int batchSize) {
+        this.sink = sink;
+        this.capacity = Math.max(1, capacity);
+        Thread thread = new Thread(() -> dispatchLoop(sink, batchSize), "tracker-notification-dispatcher");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+    }
+
+    public NotificationSink getSink() {
+        return sink;
+    }
+
+    public int getPendingCount() {
+        return pending.size() + inFlight.size();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public DispatchResult dispatch(NotificationSink sink, int maxEvents) throws IOException {
+        List<Long> drained = new ArrayList<>();
+        queue.drainTo(drained, maxEvents);
+        signalSpace();
+
+        List<Long> events = new ArrayList<>(drained.size());
+        Object owner = new Object();
+        VersionClock clock = database.getClock();
+        long stamp = clock.beginWrite();
+
+        try {
+            for (long event : drained) {
+                if (pending.remove(event)) {
+                    inFlight.put(event, owner);
+                    events.add(event);
+                }
+            }
+        } finally {
+            clock.endWrite(stamp);
+        }
+
+        if (events.isEmpty()) {
+            return new DispatchResult(0, 0);
+        }
+
+        // course first, then ascending student id
+        Collections.sort(events);
+        List<Notification> batch = new ArrayList<>(events.size());
+        Set<Long> students = new HashSet<>();
+
+        for (long event : events) {
+            User user = database.getStudent(studentId(event));
+            String courseName = database.getCourseName(course(event));
+            batch.add(new Notification(user.getId(), user.getEmail(), user.getName(), courseName));
+            students.add(user.getId());
+        }
+
+        try {
+            deliverWithRetry(sink, batch);
+        } catch (IOException e) {
+            long requeue = clock.beginWrite();
+
+            try {
+                for (int i = events.size() - 1; i >= 0; i--) {
+                    long event = events.get(i);
+
+                    if (inFlight.remove(event, owner) && pending.add(event)) {
+                        queue.addFirst(event);
+                    }
+                }
+            } finally {
+                clock.endWrite(requeue);
+            }
+            throw e;
+        }
+
+        database.logNotified(events, event -> settle(event, owner));
+        delivered.addAndGet(batch.size());
+        return new DispatchResult(batch.size(), students.size());
+    }
+
+    public DispatchResult dispatchAll(NotificationSink sink) throws IOException {
+        return dispatch(sink, Integer.MAX_VALUE);
+    }
+
+    private void deliverWithRetry(NotificationSink sink, List<Notification> batch) throws IOException {
+        long backoff = INITIAL_BACKOFF_MILLIS;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.deliver(batch);
+                return;
+            } catch (IOException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while retrying notification delivery", e);
+            }
+            backoff *= 2;
+        }
+    }
+
+    private void dispatchLoop(NotificationSink sink, int batchSize) {
+        while (dispatcher == Thread.currentThread()) {
+            try {
+                Long first = queue.pollFirst(200, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                queue.addFirst(first);
+                dispatch(sink, batchSize);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Notification delivery failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    Set<Long> getPending(int course) {
+        Set<Long> ids = new HashSet<>();
+
+        for (long event : pending) {
+            if (course(event) == course) {
+                ids.add(studentId(event));
+            }
+        }
+        for (long event : inFlight.keySet()) {
+            if (course(event) == course) {
+                ids.add(studentId(event));
+            }
+        }
+
+        return ids;
+    }
+
+    void restore(int course, long[] ids) {
+        for (long id : ids) {
+            long event = event(id, course);
+
+            if (pending.add(event)) {
+                queue.addLast(event);
+            }
+        }
+    }
+
+    void remove(int course, long[] ids) {
+        for (long id : ids) {
+            pending.remove(event(id, course));
+        }
+    }
+
+    private void signalSpace() {
+        synchronized (space) {
+            space.notifyAll();
+        }
+    }
+
+    private boolean settle(long event, Object owner) {
+        if (!inFlight.remove(event, owner)) {
+            return false;
+        }
+        return !pending.contains(event);
+    }
+
+    static long event(long id, int course) {
+        return ((long) course << COURSE_SHIFT) | id;
+    }
+
+    static long studentId(long event) {
+        return event & ID_MASK;
+    }
+
+    static int course(long event) {
+        return (int) (event >>> COURSE_SHIFT);
+    }
+
+    @Override
+    public void close() {
+        Thread thread = dispatcher;
+        dispatcher = null;
+        signalSpace();
+
+        if (thread != null) {
+            thread.interrupt();
+
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (sink instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) sink).close();
+            } catch (Exception e) {
+                System.err.println("Failed to close notification sink: " + e.getMessage());
+            }
+        }
+    }
+
+    public static class DispatchResult {
+        private final int messages;
+        private final int students;
+
+        DispatchResult(int messages, int students) {
+            this.messages = messages;
+            this.students = students;
+        }
+
+        public int getMessages() {
+            return messages;
+        }
+
+        public int getStudents() {
+            return students;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface NotificationSink {
+    void deliver(List<Notification> batch) throws IOException;
+}
@@ -0,0 +1,19 @@
+package tracker;
+
+public enum Operation {
+    ADD_STUDENT,
+    ADD_POINTS,
+    FIND,
+    SEARCH,
+    COHORT,
+    LIST,
+    STATISTICS,
+    COURSE_DETAILS,
+    NOTIFY,
+    IMPORT_STUDENTS,
+    IMPORT_POINTS,
+    METRICS,
+    DATABASE_REGISTER,
+    DATABASE_UPDATE,
+    DATABASE_BATCH_UPDATE
+}
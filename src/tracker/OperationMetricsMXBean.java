@@ -0,0 +1,13 @@
+package tracker;
+
+public interface OperationMetricsMXBean {
+    long getCount();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+}
@@ -0,0 +1,49 @@
+package tracker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PointsBatch {
+    private final int courses;
+    private final Map<Long, int[]> deltas = new LinkedHashMap<>();
+
+    public PointsBatch(int courses) {
+        this.courses = courses;
+    }
+
+    public void add(long id, int[] points) {
+        int[] delta = deltas.computeIfAbsent(id, key -> new int[courses * 3]);
+
+        for (int course = 0; course < courses; course++) {
+            if (delta[course] == 0 && points[course] == 0) {
+                delta[2 * courses + course] += 1;
+            }
+            delta[course] += points[course];
+            delta[courses + course] += 1;
+        }
+    }
+
+    public Map<Long, int[]> getDeltas() {
+        return deltas;
+    }
+
+    public int size() {
+        return deltas.size();
+    }
+
+    public void clear() {
+        deltas.clear();
+    }
+
+    public static int points(int[] delta, int course) {
+        return delta[course];
+    }
+
+    public static int submissions(int[] delta, int course) {
+        return delta[delta.length / 3 + course];
+    }
+
+    public static int submissionsBeforeEnrollment(int[] delta, int course) {
+        return delta[2 * delta.length / 3 + course];
+    }
+}
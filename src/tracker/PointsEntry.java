@@ -0,0 +1,62 @@
+package tracker;
+
+public class PointsEntry {
+    private final long id;
+    private final int[] points;
+    private final String error;
+    private final Rejection rejection;
+    private final boolean hasId;
+
+    private PointsEntry(long id, int[] points, String error, Rejection rejection, boolean hasId) {
+        this.id = id;
+        this.points = points;
+        this.error = error;
+        this.rejection = rejection;
+        this.hasId = hasId;
+    }
+
+    public static PointsEntry valid(long id, int[] points) {
+        return new PointsEntry(id, points, null, null, true);
+    }
+
+    public static PointsEntry invalid(Rejection rejection) {
+        return new PointsEntry(0, null, rejection.getMessage(), rejection, false);
+    }
+
+    public static PointsEntry invalid(long id, Rejection rejection) {
+        return new PointsEntry(id, null, rejection.getMessage(), rejection, true);
+    }
+
+    public static PointsEntry unknownId(String id) {
+        return new PointsEntry(0, null, Rejection.UNKNOWN_STUDENT.getMessage() + " for id=" + id,
+                Rejection.UNKNOWN_STUDENT, false);
+    }
+
+    public boolean isValid() {
+        return rejection == null;
+    }
+
+    public boolean hasId() {
+        return hasId;
+    }
+
+    public boolean isUnknownId() {
+        return rejection == Rejection.UNKNOWN_STUDENT;
+    }
+
+    public Rejection getRejection() {
+        return rejection;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int[] getPoints() {
+        return points;
+    }
+}
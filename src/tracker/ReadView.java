@@ -0,0 +1,50 @@
+package tracker;
+
+import java.util.List;
+
+public class ReadView implements AutoCloseable {
+    private final Database database;
+    private final long version;
+    private final List<CourseStatistics.Totals> totals;
+    private final long lastStudentId;
+    private boolean closed;
+
+    ReadView(Database database, long version, List<CourseStatistics.Totals> totals, long lastStudentId) {
+        this.database = database;
+        this.version = version;
+        this.totals = totals;
+        this.lastStudentId = lastStudentId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    long getLastStudentId() {
+        return lastStudentId;
+    }
+
+    public CourseStatistics getCourseStatistics() {
+        return CourseStatistics.of(totals);
+    }
+
+    public List<CourseStatistics.Totals> getCourseTotals() {
+        return totals;
+    }
+
+    public void forEachRanked(Course course, long offset, long limit, Course.RankedStudentConsumer action) {
+        course.forEachRanked(version, offset, limit, action);
+    }
+
+    public void printStudentsList(ReportWriter report) {
+        database.printStudentsList(report, lastStudentId);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            database.closeView(version);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package tracker;
+
+public enum Rejection {
+    INCORRECT_CREDENTIALS("Incorrect credentials"),
+    INCORRECT_FIRST_NAME("Incorrect first name."),
+    INCORRECT_LAST_NAME("Incorrect last name."),
+    INCORRECT_EMAIL("Incorrect email."),
+    EMAIL_TAKEN("This email is already taken."),
+    BAD_POINTS_FORMAT("Incorrect points format"),
+    UNKNOWN_STUDENT("No student is found"),
+    UNKNOWN_COMMAND("Error: unknown command!");
+
+    private final String message;
+
+    Rejection(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,167 @@
+package tracker;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+public class ReportWriter implements Flushable, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer writer;
+    private final char[] buffer;
+    private int position;
+
+    public ReportWriter(Writer writer) {
+        this(writer, DEFAULT_CAPACITY);
+    }
+
+    public ReportWriter(Writer writer, int capacity) {
+        this.writer = writer;
+        this.buffer = new char[capacity];
+    }
+
+    public static ReportWriter of(PrintStream out) {
+        return new ReportWriter(new OutputStreamWriter(out, out.charset()));
+    }
+
+    public static ReportWriter of(WritableByteChannel channel) {
+        return new ReportWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    public ReportWriter append(String value) {
+        int length = value.length();
+
+        if (length > buffer.length - position) {
+            drain();
+
+            if (length > buffer.length) {
+                write(value);
+                return this;
+            }
+        }
+
+        value.getChars(0, length, buffer, position);
+        position += length;
+        return this;
+    }
+
+    public ReportWriter append(char value) {
+        if (position == buffer.length) {
+            drain();
+        }
+
+        buffer[position++] = value;
+        return this;
+    }
+
+    public ReportWriter append(long value) {
+        if (position + 20 > buffer.length) {
+            drain();
+        }
+
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                return append(Long.toString(value));
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits += 1;
+        }
+
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+
+        position += digits;
+        return this;
+    }
+
+    public ReportWriter appendPercent(int points, int total) {
+        if (total <= 0) {
+            return append("0.0%");
+        }
+
+        long magnitude = Math.abs((long) points);
+        long scaled = magnitude * 1000;
+        long tenths = scaled / total;
+        long remainder = scaled % total;
+
+        // exact ties keep the rounding the original double/BigDecimal formatting produced
+        if (2 * remainder > total) {
+            tenths += 1;
+        } else if (2 * remainder == total && (double) magnitude / total * 100 >= (2 * tenths + 1) / 20.0) {
+            tenths += 1;
+        }
+
+        if (points < 0 && tenths != 0) {
+            append('-');
+        }
+
+        return append(tenths / 10).append('.').append(tenths % 10).append('%');
+    }
+
+    public ReportWriter newLine() {
+        return append(LINE_SEPARATOR);
+    }
+
+    public ReportWriter println(String value) {
+        return append(value).newLine();
+    }
+
+    @Override
+    public void flush() {
+        drain();
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() {
+        if (position > 0) {
+            write(buffer, position);
+            position = 0;
+        }
+    }
+
+    private void write(char[] chars, int length) {
+        try {
+            writer.write(chars, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String value) {
+        try {
+            writer.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package tracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ScoreDistribution {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (32 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int BANDS = 10;
+
+    private final int minCompletion;
+    private final AtomicLongArray quantiles = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray bands = new AtomicLongArray(BANDS + 1);
+    private final AtomicLong count = new AtomicLong();
+
+    public ScoreDistribution(int minCompletion) {
+        this.minCompletion = minCompletion;
+    }
+
+    public void add(int points) {
+        quantiles.incrementAndGet(index(points));
+        bands.incrementAndGet(band(points));
+        count.incrementAndGet();
+    }
+
+    public void move(int from, int to) {
+        int fromIndex = index(from);
+        int toIndex = index(to);
+
+        if (fromIndex != toIndex) {
+            quantiles.decrementAndGet(fromIndex);
+            quantiles.incrementAndGet(toIndex);
+        }
+
+        int fromBand = band(from);
+        int toBand = band(to);
+
+        if (fromBand != toBand) {
+            bands.decrementAndGet(fromBand);
+            bands.incrementAndGet(toBand);
+        }
+    }
+
+    public void addAll(ScoreDistribution other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            quantiles.addAndGet(i, other.quantiles.get(i));
+        }
+        for (int i = 0; i <= BANDS; i++) {
+            bands.addAndGet(i, other.bands.get(i));
+        }
+        count.addAndGet(other.count.get());
+    }
+
+    public void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            quantiles.set(i, 0);
+        }
+        for (int i = 0; i <= BANDS; i++) {
+            bands.set(i, 0);
+        }
+        count.set(0);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public int getPercentile(double percentile) {
+        long total = count.get();
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        int last = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucket = quantiles.get(i);
+
+            if (bucket == 0) {
+                continue;
+            }
+
+            seen += bucket;
+            last = i;
+
+            if (seen >= target) {
+                return estimate(i);
+            }
+        }
+
+        return estimate(last);
+    }
+
+    public int getBands() {
+        return BANDS;
+    }
+
+    public long getBand(int band) {
+        return bands.get(band);
+    }
+
+    public long getReached(int band) {
+        long reached = 0;
+
+        for (int i = band; i <= BANDS; i++) {
+            reached += bands.get(i);
+        }
+
+        return reached;
+    }
+
+    private int band(int points) {
+        if (points >= minCompletion) {
+            return BANDS;
+        }
+        return (int) ((long) Math.max(0, points) * BANDS / minCompletion);
+    }
+
+    static int index(int points) {
+        int value = Math.max(0, points);
+
+        if (value < SUB_BUCKETS) {
+            return value;
+        }
+
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static int estimate(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        long upper = lower + (1L << shift) - 1;
+        return (int) ((lower + upper) / 2);
+    }
+}
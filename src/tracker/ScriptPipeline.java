@@ -0,0 +1,223 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ScriptPipeline implements LineSource, AutoCloseable {
+    private static final int BLOCK_SIZE = 1024;
+    private static final int BLOCKS_IN_FLIGHT = 64;
+    private static final ThreadLocal<LineTokenizer> TOKENIZER = ThreadLocal.withInitial(LineTokenizer::new);
+
+    private enum Mode {
+        COMMAND, STUDENTS, POINTS, OTHER
+    }
+
+    private final LineReader reader;
+    private final int courses;
+    private final BlockingQueue<CompletableFuture<Block>> blocks = new ArrayBlockingQueue<>(BLOCKS_IN_FLIGHT);
+    private final ExecutorService parsers;
+    private final Thread readerThread;
+    private Block block = new Block(0);
+    private int position = -1;
+    private boolean finished;
+
+    public ScriptPipeline(InputStream in, int courses, int parallelism) {
+        this.reader = new LineReader(in);
+        this.courses = courses;
+        this.parsers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "tracker-script-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.readerThread = new Thread(this::readLoop, "tracker-script-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        while (position + 1 >= block.size()) {
+            if (finished) {
+                return false;
+            }
+
+            try {
+                block = blocks.take().join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading script", e);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+
+            position = -1;
+            finished = block.last;
+        }
+
+        position += 1;
+        return true;
+    }
+
+    @Override
+    public boolean ready() {
+        CompletableFuture<Block> head = blocks.peek();
+        return position + 1 < block.size() || head != null && head.isDone();
+    }
+
+    @Override
+    public byte[] bytes() {
+        return block.lines.get(position);
+    }
+
+    @Override
+    public int length() {
+        return block.lines.get(position).length;
+    }
+
+    @Override
+    public Credentials getCredentials() {
+        return block.credentials[position];
+    }
+
+    @Override
+    public PointsEntry getPoints() {
+        return block.points[position];
+    }
+
+    private void readLoop() {
+        Mode mode = Mode.COMMAND;
+        Block current = new Block(BLOCK_SIZE);
+
+        try {
+            while (reader.next()) {
+                byte[] line = reader.copy();
+                current.add(line, mode);
+                mode = nextMode(mode, line);
+
+                if (current.size() == BLOCK_SIZE) {
+                    submit(current);
+                    current = new Block(BLOCK_SIZE);
+                }
+            }
+
+            current.last = true;
+            submit(current);
+        } catch (IOException e) {
+            fail(new UncheckedIOException(e));
+        } catch (RuntimeException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(RuntimeException e) {
+        try {
+            blocks.put(CompletableFuture.failedFuture(e));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Block block) throws InterruptedException {
+        blocks.put(CompletableFuture.supplyAsync(() -> block.parse(courses), parsers));
+    }
+
+    private static Mode nextMode(Mode mode, byte[] line) {
+        LineTokenizer tokens = TOKENIZER.get();
+
+        switch (mode) {
+            case COMMAND: {
+                int from = 0;
+                int to = line.length;
+
+                while (from < to && LineTokenizer.isStripped(line[from])) {
+                    from += 1;
+                }
+                while (to > from && LineTokenizer.isStripped(line[to - 1])) {
+                    to -= 1;
+                }
+
+                tokens.whole(line, from, to);
+
+                if (tokens.tokenEquals(0, "add students")) {
+                    return Mode.STUDENTS;
+                }
+                if (tokens.tokenEquals(0, "add points")) {
+                    return Mode.POINTS;
+                }
+                if (tokens.tokenEquals(0, "find") || tokens.tokenEquals(0, "search")
+                        || tokens.tokenEquals(0, "cohort") || tokens.tokenEquals(0, "statistics")) {
+                    return Mode.OTHER;
+                }
+                return mode;
+            }
+            case POINTS:
+                tokens.split(line, 0, line.length);
+                return tokens.size() > 0 && tokens.tokenEquals(0, "back") ? Mode.COMMAND : mode;
+            default:
+                return tokens.whole(line, 0, line.length).tokenEquals(0, "back") ? Mode.COMMAND : mode;
+        }
+    }
+
+    @Override
+    public void close() {
+        readerThread.interrupt();
+        parsers.shutdownNow();
+    }
+
+    private static class Block {
+        private final List<byte[]> lines;
+        private final List<Mode> modes;
+        private Credentials[] credentials;
+        private PointsEntry[] points;
+        private boolean last;
+
+        Block(int capacity) {
+            this.lines = new ArrayList<>(capacity);
+            this.modes = new ArrayList<>(capacity);
+        }
+
+        void add(byte[] line, Mode mode) {
+            lines.add(line);
+            modes.add(mode);
+        }
+
+        int size() {
+            return lines.size();
+        }
+
+        Block parse(int courses) {
+            LineTokenizer tokens = TOKENIZER.get();
+            credentials = new Credentials[lines.size()];
+            points = new PointsEntry[lines.size()];
+
+            for (int i = 0; i < lines.size(); i++) {
+                byte[] line = lines.get(i);
+
+                if (modes.get(i) == Mode.STUDENTS) {
+                    credentials[i] = LearningProgressTracker.parseCredentials(tokens.split(line, 0, line.length).toArray());
+                } else if (modes.get(i) == Mode.POINTS) {
+                    points[i] = LearningProgressTracker.parsePoints(tokens.split(line, 0, line.length), courses);
+                }
+            }
+
+            return this;
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class ShardedDatabase implements TrackerStore {
+    private static final int LOCK_STRIPES = 64;
+    private static final int LIST_PAGE_SIZE = 4096;
+
+    private final Database[] shards;
+    private final ExecutorService[] workers;
+    private final Object[] emailLocks;
+    private final TrackerMetrics metrics;
+
+    public ShardedDatabase(int shards) {
+        this(CourseRegistry.defaults(), shards);
+    }
+
+    public ShardedDatabase(CourseRegistry registry, int shards) {
+        this(createShards(registry, shards, new TrackerMetrics(registry.size())));
+    }
+
+    private ShardedDatabase(Database[] shards) {
+        this.shards = shards;
+        this.workers = new ExecutorService[shards.length];
+        this.emailLocks = new Object[LOCK_STRIPES];
+        this.metrics = shards[0].getMetrics();
+
+        for (int i = 0; i < shards.length; i++) {
+            String name = "tracker-shard-" + i;
+            workers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            emailLocks[i] = new Object();
+        }
+    }
+
+    public static ShardedDatabase open(Path logPath, WriteAheadLog.Durability durability, Path snapshotPath,
+                                       CourseRegistry registry, int shards) throws IOException {
+        checkShards(shards);
+        TrackerMetrics metrics = new TrackerMetrics(registry.size());
+        Database[] databases = new Database[shards];
+
+        for (int i = 0; i < shards; i++) {
+            databases[i] = Database.open(shardPath(logPath, i), durability, shardPath(snapshotPath, i), registry,
+                    metrics);
+        }
+
+        return new ShardedDatabase(databases);
+    }
+
+    private static Database[] createShards(CourseRegistry registry, int count, TrackerMetrics metrics) {
+        checkShards(count);
+        Database[] shards = new Database[count];
+
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Database(registry, 16, metrics);
+        }
+
+        return shards;
+    }
+
+    private static void checkShards(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+    }
+
+    static Path shardPath(Path path, int shard) {
+        return path == null ? null : path.resolveSibling(path.getFileName() + "." + shard);
+    }
+
+    public int getNumberOfShards() {
+        return shards.length;
+    }
+
+    Database getShard(int shard) {
+        return shards[shard];
+    }
+
+    int shardOf(long id) {
+        return (int) ((id >>> GradeStore.CHUNK_BITS) % shards.length);
+    }
+
+    @Override
+    public User register(Credentials credentials) {
+        long start = System.nanoTime();
+        String email = Database.normalizeEmail(credentials.getEmail());
+
+        synchronized (emailLock(email)) {
+            if (studentExists(email)) {
+                metrics.record(Operation.DATABASE_REGISTER, start);
+                return null;
+            }
+
+            User user = credentials.toUser();
+            insert(user);
+            return user;
+        }
+    }
+
+    void insert(User user) {
+        onShard(shardOf(user.getId()), shard -> {
+            shard.addStudent(user);
+            return null;
+        });
+    }
+
+    @Override
+    public void reserveCapacity(int expectedStudents) {
+        int perShard = expectedStudents / shards.length + 1;
+
+        for (Database shard : shards) {
+            shard.reserveIndexCapacity(perShard);
+        }
+    }
+
+    @Override
+    public boolean studentExists(String email) {
+        for (Database shard : shards) {
+            if (shard.studentExists(email)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean studentExists(long id) {
+        return shards[shardOf(id)].studentExists(id);
+    }
+
+    @Override
+    public User getStudent(long id) {
+        return shards[shardOf(id)].getStudent(id);
+    }
+
+    @Override
+    public int getNumberOfStudents() {
+        int students = 0;
+
+        for (Database shard : shards) {
+            students += shard.getNumberOfStudents();
+        }
+
+        return students;
+    }
+
+    @Override
+    public List<User> search(String query, boolean prefix, int offset, int limit) {
+        int wanted = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        List<User> matches = new ArrayList<>();
+
+        for (List<User> page : onAllShards(shard -> shard.search(query, prefix, 0, wanted))) {
+            matches.addAll(page);
+        }
+
+        matches.sort(Comparator.comparingLong(User::getId));
+        return offset >= matches.size() ? List.of()
+                : new ArrayList<>(matches.subList(offset, Math.min(matches.size(), wanted)));
+    }
+
+    @Override
+    public int getNumberOfCourses() {
+        return shards[0].getNumberOfCourses();
+    }
+
+    @Override
+    public String getCourseName(int course) {
+        return shards[0].getCourseName(course);
+    }
+
+    @Override
+    public int getCourseIndex(String courseName) {
+        return shards[0].getCourseIndex(courseName);
+    }
+
+    @Override
+    public boolean courseExists(String courseName) {
+        return shards[0].courseExists(courseName);
+    }
+
+    @Override
+    public int getMinCompletion(int course) {
+        return shards[0].getMinCompletion(course);
+    }
+
+    @Override
+    public void update(long id, int[] points) {
+        onShard(shardOf(id), shard -> {
+            shard.update(id, points);
+            return null;
+        });
+    }
+
+    @Override
+    public void update(PointsBatch batch) {
+        PointsBatch[] parts = new PointsBatch[shards.length];
+
+        for (Map.Entry<Long, int[]> entry : batch.getDeltas().entrySet()) {
+            int shard = shardOf(entry.getKey());
+
+            if (parts[shard] == null) {
+                parts[shard] = new PointsBatch(getNumberOfCourses());
+            }
+            parts[shard].getDeltas().put(entry.getKey(), entry.getValue());
+        }
+
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+
+        for (int i = 0; i < shards.length; i++) {
+            if (parts[i] != null) {
+                Database shard = shards[i];
+                PointsBatch part = parts[i];
+                updates.add(CompletableFuture.runAsync(() -> shard.update(part), workers[i]));
+            }
+        }
+
+        for (CompletableFuture<Void> update : updates) {
+            await(update);
+        }
+    }
+
+    @Override
+    public void printStudentsList(ReportWriter report) {
+        StudentBitmap students = getStudentIds();
+        List<Long> page = students.getIds(0, LIST_PAGE_SIZE);
+
+        if (page.isEmpty()) {
+            report.println("No students found");
+            return;
+        }
+
+        report.println("Students:");
+
+        for (long offset = 0; !page.isEmpty(); page = students.getIds(offset, LIST_PAGE_SIZE)) {
+            for (long id : page) {
+                report.append(id).newLine();
+            }
+            offset += page.size();
+        }
+    }
+
+    @Override
+    public CourseStatistics getCourseStatistics() {
+        List<CourseStatistics.Totals> merged = null;
+
+        for (List<CourseStatistics.Totals> totals : onAllShards(shard -> {
+            try (ReadView view = shard.openView()) {
+                return view.getCourseTotals();
+            }
+        })) {
+            if (merged == null) {
+                merged = new ArrayList<>(totals);
+                continue;
+            }
+
+            for (int i = 0; i < merged.size(); i++) {
+                merged.set(i, merged.get(i).plus(totals.get(i)));
+            }
+        }
+
+        return CourseStatistics.of(merged);
+    }
+
+    @Override
+    public void forEachRanked(int course, long offset, long limit, Course.RankedStudentConsumer action) {
+        List<ReadView> views = onAllShards(Database::openView);
+
+        try {
+            PriorityQueue<RankedCursor> cursors = new PriorityQueue<>(
+                    Comparator.comparingLong(cursor -> cursor.key));
+
+            for (int i = 0; i < shards.length; i++) {
+                RankedCursor cursor = new RankedCursor(
+                        shards[i].getCourse(course).rankedKeys(views.get(i).getVersion()));
+
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+
+            long end = limit > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + limit;
+
+            for (long i = 0; i < end && !cursors.isEmpty(); i++) {
+                RankedCursor cursor = cursors.poll();
+
+                if (i >= offset) {
+                    action.accept(Course.leaderboardId(cursor.key), Course.leaderboardPoints(cursor.key));
+                }
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+        } finally {
+            for (ReadView view : views) {
+                view.close();
+            }
+        }
+    }
+
+    @Override
+    public ScoreDistribution getDistribution(int course) {
+        ScoreDistribution merged = new ScoreDistribution(getMinCompletion(course));
+
+        for (Database shard : shards) {
+            merged.addAll(shard.getDistribution(course));
+        }
+
+        return merged;
+    }
+
+    @Override
+    public ActivityReport getActivityReport(long windowMillis) {
+        return ActivityReport.merge(onAllShards(shard -> shard.getActivityReport(windowMillis)));
+    }
+
+    @Override
+    public StudentBitmap getStudentIds() {
+        return union(onAllShards(Database::getStudentIds));
+    }
+
+    @Override
+    public StudentBitmap getEnrolledStudents(int course) {
+        return union(onAllShards(shard -> shard.getEnrolledStudents(course)));
+    }
+
+    @Override
+    public StudentBitmap getGraduatedStudents(int course) {
+        return union(onAllShards(shard -> shard.getGraduatedStudents(course)));
+    }
+
+    private static StudentBitmap union(List<StudentBitmap> bitmaps) {
+        StudentBitmap union = bitmaps.get(0);
+
+        for (int i = 1; i < bitmaps.size(); i++) {
+            union = union.or(bitmaps.get(i));
+        }
+
+        return union;
+    }
+
+    @Override
+    public NotificationOutbox.DispatchResult notifyGraduates(NotificationSink fallback) throws IOException {
+        int messages = 0;
+        int students = 0;
+
+        for (int i = 0; i < shards.length; i++) {
+            NotificationOutbox.DispatchResult result;
+
+            try {
+                result = onShard(i, shard -> {
+                    try {
+                        return shard.notifyGraduates(fallback);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            messages += result.getMessages();
+            students += result.getStudents();
+        }
+
+        return new NotificationOutbox.DispatchResult(messages, students);
+    }
+
+    @Override
+    public void startNotifications(NotificationSink sink, int capacity, int batchSize) {
+        for (Database shard : shards) {
+            shard.startNotifications(sink, Math.max(1, capacity / shards.length), batchSize);
+        }
+    }
+
+    @Override
+    public long getDeliveredNotifications() {
+        long delivered = 0;
+
+        for (Database shard : shards) {
+            delivered += shard.getDeliveredNotifications();
+        }
+
+        return delivered;
+    }
+
+    @Override
+    public int getPendingNotifications() {
+        int pending = 0;
+
+        for (Database shard : shards) {
+            pending += shard.getPendingNotifications();
+        }
+
+        return pending;
+    }
+
+    @Override
+    public TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void writeSnapshot(Path path) throws IOException {
+        for (int i = 0; i < shards.length; i++) {
+            shards[i].writeSnapshot(shardPath(path, i));
+        }
+    }
+
+    private <T> T onShard(int shard, Function<Database, T> task) {
+        Database database = shards[shard];
+        return await(CompletableFuture.supplyAsync(() -> task.apply(database), workers[shard]));
+    }
+
+    private <T> List<T> onAllShards(Function<Database, T> task) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.length);
+
+        for (int i = 0; i < shards.length; i++) {
+            Database database = shards[i];
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(database), workers[i]));
+        }
+
+        List<T> results = new ArrayList<>(shards.length);
+
+        for (CompletableFuture<T> future : futures) {
+            results.add(await(future));
+        }
+
+        return results;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Object emailLock(String normalizedEmail) {
+        return emailLocks[normalizedEmail.hashCode() & (LOCK_STRIPES - 1)];
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+
+        for (ExecutorService worker : workers) {
+            try {
+                worker.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        for (Database shard : shards) {
+            shard.close();
+        }
+    }
+
+    private static class RankedCursor {
+        private final Iterator<Long> keys;
+        private long key;
+
+        private RankedCursor(Iterator<Long> keys) {
+            this.keys = keys;
+        }
+
+        private boolean advance() {
+            if (!keys.hasNext()) {
+                return false;
+            }
+
+            key = keys.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package tracker;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class Snapshot {
+    private static final int MAGIC = 0x4C505453;
+    private static final int VERSION = 2;
+
+    private final long logPosition;
+    private final long lastId;
+    private final List<User> students;
+    private final String[] courseNames;
+    private final int[] activity;
+    private final int[] totalPoints;
+    private final int[][] points;
+    private final long[][] enrollment;
+    private final List<Set<Long>> pendingGraduates;
+
+    Snapshot(long logPosition, ReadView view, Iterable<User> students, Course[] courses,
+             List<Set<Long>> pendingGraduates) {
+        this.logPosition = logPosition;
+        this.lastId = view.getLastStudentId();
+        this.students = new ArrayList<>();
+        this.courseNames = new String[courses.length];
+        this.activity = new int[courses.length];
+        this.totalPoints = new int[courses.length];
+        this.points = new int[courses.length][];
+        this.enrollment = new long[courses.length][];
+        this.pendingGraduates = pendingGraduates;
+
+        for (User student : students) {
+            if (student.getId() > lastId) {
+                break;
+            }
+            this.students.add(student);
+        }
+
+        int length = Math.toIntExact(lastId + 1);
+        List<CourseStatistics.Totals> totals = view.getCourseTotals();
+
+        for (int i = 0; i < courses.length; i++) {
+            int[] column = new int[length];
+            long[] words = new long[(length + 63) >>> 6];
+            view.forEachRanked(courses[i], 0, Long.MAX_VALUE, (id, value) -> {
+                column[(int) id] = value;
+                words[(int) (id >>> 6)] |= 1L << id;
+            });
+
+            courseNames[i] = courses[i].getName();
+            activity[i] = (int) totals.get(i).getActivity();
+            totalPoints[i] = (int) totals.get(i).getTotalPoints();
+            points[i] = column;
+            enrollment[i] = words;
+        }
+    }
+
+    public long getLogPosition() {
+        return logPosition;
+    }
+
+    public void write(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(logPosition);
+            out.writeLong(lastId);
+            out.writeInt(students.size());
+
+            for (User student : students) {
+                out.writeLong(student.getId());
+                writeString(out, student.getFirstName());
+                writeString(out, student.getLastName());
+                writeString(out, student.getEmail());
+            }
+
+            out.writeInt(points.length);
+
+            for (int i = 0; i < points.length; i++) {
+                writeString(out, courseNames[i]);
+                out.writeInt(activity[i]);
+                out.writeInt(totalPoints[i]);
+                out.writeInt(points[i].length);
+
+                for (int value : points[i]) {
+                    out.writeInt(value);
+                }
+
+                out.writeInt(enrollment[i].length);
+
+                for (long word : enrollment[i]) {
+                    out.writeLong(word);
+                }
+
+                out.writeInt(pendingGraduates.get(i).size());
+
+                for (long id : pendingGraduates.get(i)) {
+                    out.writeLong(id);
+                }
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static long load(Path path, Database database) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + path);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a learning progress tracker snapshot: " + path);
+            }
+
+            long logPosition = buffer.getLong();
+            long lastId = buffer.getLong();
+            int students = buffer.getInt();
+            database.reserveCapacity(Math.toIntExact(lastId));
+
+            for (int i = 0; i < students; i++) {
+                long id = buffer.getLong();
+                database.restoreStudent(id, readString(buffer), readString(buffer), readString(buffer));
+            }
+
+            User.advanceCounter(lastId);
+            int courses = buffer.getInt();
+
+            for (int i = 0; i < courses; i++) {
+                String name = readString(buffer);
+                int course = database.getCourseIndex(name);
+
+                if (course < 0) {
+                    throw new IOException("Snapshot contains unknown course " + name + ": " + path);
+                }
+
+                int activity = buffer.getInt();
+                int totalPoints = buffer.getInt();
+                int[] column = new int[buffer.getInt()];
+                buffer.asIntBuffer().get(column);
+                buffer.position(buffer.position() + 4 * column.length);
+                long[] words = new long[buffer.getInt()];
+                buffer.asLongBuffer().get(words);
+                buffer.position(buffer.position() + 8 * words.length);
+                long[] graduates = new long[buffer.getInt()];
+                buffer.asLongBuffer().get(graduates);
+                buffer.position(buffer.position() + 8 * graduates.length);
+                database.restoreCourse(course, activity, totalPoints, column, words, graduates);
+            }
+
+            return logPosition;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
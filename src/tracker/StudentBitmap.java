@@ -0,0 +1,414 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class StudentBitmap {
+    private static final int KEY_BITS = 16;
+    private static final int CONTAINER_SIZE = 1 << KEY_BITS;
+    private static final int WORDS = CONTAINER_SIZE / 64;
+    private static final int ARRAY_MAX = 4096;
+    private static final int SPLIT_CONTAINERS = 4;
+
+    private volatile Container[] containers;
+
+    public StudentBitmap() {
+        this(new Container[0]);
+    }
+
+    private StudentBitmap(Container[] containers) {
+        this.containers = containers;
+    }
+
+    static StudentBitmap fromWords(long[] words) {
+        Container[] containers = new Container[(words.length + WORDS - 1) / WORDS];
+
+        for (int key = 0; key < containers.length; key++) {
+            containers[key] = Container.fromWords(Arrays.copyOfRange(words, key * WORDS, (key + 1) * WORDS));
+        }
+
+        return new StudentBitmap(containers);
+    }
+
+    public synchronized boolean add(long id) {
+        int key = Math.toIntExact(id >>> KEY_BITS);
+        Container[] current = containers;
+
+        if (key >= current.length) {
+            current = Arrays.copyOf(current, Math.max(key + 1, current.length * 2));
+            containers = current;
+        }
+        if (current[key] == null) {
+            current[key] = new Container(new char[4], null, 0);
+        }
+
+        return current[key].add((char) id);
+    }
+
+    public synchronized boolean contains(long id) {
+        Container[] current = containers;
+        long key = id >>> KEY_BITS;
+        return key < current.length && current[(int) key] != null && current[(int) key].contains((char) id);
+    }
+
+    public synchronized StudentBitmap copy() {
+        Container[] current = containers;
+        Container[] copy = new Container[current.length];
+
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != null && current[i].cardinality > 0) {
+                copy[i] = current[i].copy();
+            }
+        }
+
+        return new StudentBitmap(copy);
+    }
+
+    public synchronized void clear() {
+        containers = new Container[0];
+    }
+
+    public long getCardinality() {
+        long cardinality = 0;
+
+        for (Container container : containers) {
+            if (container != null) {
+                cardinality += container.cardinality;
+            }
+        }
+
+        return cardinality;
+    }
+
+    public List<Long> getIds(long offset, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        Container[] current = containers;
+        long skip = offset;
+
+        for (int key = 0; key < current.length && ids.size() < limit; key++) {
+            Container container = current[key];
+
+            if (container == null) {
+                continue;
+            }
+            if (skip >= container.cardinality) {
+                skip -= container.cardinality;
+                continue;
+            }
+
+            container.collect((long) key << KEY_BITS, (int) skip, limit, ids);
+            skip = 0;
+        }
+
+        return ids;
+    }
+
+    public StudentBitmap and(StudentBitmap other) {
+        return combine(this, other, Combination.AND);
+    }
+
+    public StudentBitmap or(StudentBitmap other) {
+        return combine(this, other, Combination.OR);
+    }
+
+    public StudentBitmap andNot(StudentBitmap other) {
+        return combine(this, other, Combination.AND_NOT);
+    }
+
+    private static StudentBitmap combine(StudentBitmap left, StudentBitmap right, Combination combination) {
+        Container[] a = left.containers;
+        Container[] b = right.containers;
+        Container[] result = new Container[combination == Combination.OR ? Math.max(a.length, b.length)
+                : combination == Combination.AND ? Math.min(a.length, b.length) : a.length];
+        ForkJoinPool.commonPool().invoke(new CombineTask(a, b, result, combination, 0, result.length));
+        return new StudentBitmap(result);
+    }
+
+    private enum Combination {
+        AND, OR, AND_NOT
+    }
+
+    @SuppressWarnings("serial")
+    private static class CombineTask extends RecursiveAction {
+        private final Container[] a;
+        private final Container[] b;
+        private final Container[] result;
+        private final Combination combination;
+        private final int from;
+        private final int to;
+
+        private CombineTask(Container[] a, Container[] b, Container[] result, Combination combination,
+                            int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.result = result;
+            this.combination = combination;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_CONTAINERS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CombineTask(a, b, result, combination, from, middle),
+                        new CombineTask(a, b, result, combination, middle, to));
+                return;
+            }
+
+            for (int key = from; key < to; key++) {
+                Container left = key < a.length ? a[key] : null;
+                Container right = key < b.length ? b[key] : null;
+
+                switch (combination) {
+                    case AND:
+                        result[key] = left == null || right == null ? null : Container.and(left, right);
+                        break;
+                    case OR:
+                        result[key] = left == null ? right : right == null ? left : Container.or(left, right);
+                        break;
+                    default:
+                        result[key] = left == null || right == null ? left : Container.andNot(left, right);
+                }
+            }
+        }
+    }
+
+    private static class Container {
+        private char[] values;
+        private long[] words;
+        private int cardinality;
+
+        private Container(char[] values, long[] words, int cardinality) {
+            this.values = values;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        private boolean contains(char value) {
+            if (words != null) {
+                return (words[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        private boolean add(char value) {
+            if (words != null) {
+                long mask = 1L << value;
+
+                if ((words[value >>> 6] & mask) != 0) {
+                    return false;
+                }
+                words[value >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+
+            int position = cardinality > 0 && values[cardinality - 1] < value ? -cardinality - 1
+                    : Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (position >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                words = toWords();
+                values = null;
+                return add(value);
+            }
+
+            position = -position - 1;
+
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+            }
+
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = value;
+            cardinality++;
+            return true;
+        }
+
+        private Container copy() {
+            return new Container(values == null ? null : Arrays.copyOf(values, cardinality),
+                    words == null ? null : words.clone(), cardinality);
+        }
+
+        private long[] toWords() {
+            if (words != null) {
+                return words.clone();
+            }
+
+            long[] result = new long[WORDS];
+
+            for (int i = 0; i < cardinality; i++) {
+                result[values[i] >>> 6] |= 1L << values[i];
+            }
+
+            return result;
+        }
+
+        private void collect(long base, int skip, int limit, List<Long> ids) {
+            if (words == null) {
+                for (int i = skip; i < cardinality && ids.size() < limit; i++) {
+                    ids.add(base + values[i]);
+                }
+                return;
+            }
+
+            for (int w = 0; w < WORDS && ids.size() < limit; w++) {
+                long word = words[w];
+
+                while (word != 0 && ids.size() < limit) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        ids.add(base + w * 64 + Long.numberOfTrailingZeros(word));
+                    }
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private static Container and(Container a, Container b) {
+            if (a.words == null && b.words == null) {
+                char[] result = new char[Math.min(a.cardinality, b.cardinality)];
+                int size = 0;
+
+                for (int i = 0, j = 0; i < a.cardinality && j < b.cardinality; ) {
+                    if (a.values[i] < b.values[j]) {
+                        i++;
+                    } else if (a.values[i] > b.values[j]) {
+                        j++;
+                    } else {
+                        result[size++] = a.values[i];
+                        i++;
+                        j++;
+                    }
+                }
+
+                return size == 0 ? null : new Container(result, null, size);
+            }
+            if (a.words == null) {
+                return filter(a, b, true);
+            }
+            if (b.words == null) {
+                return filter(b, a, true);
+            }
+
+            long[] result = new long[WORDS];
+
+            for (int w = 0; w < WORDS; w++) {
+                result[w] = a.words[w] & b.words[w];
+            }
+
+            return fromWords(result);
+        }
+
+        private static Container or(Container a, Container b) {
+            if (a.words == null && b.words == null && a.cardinality + b.cardinality <= ARRAY_MAX) {
+                char[] result = new char[a.cardinality + b.cardinality];
+                int size = 0;
+                int i = 0;
+                int j = 0;
+
+                while (i < a.cardinality && j < b.cardinality) {
+                    if (a.values[i] < b.values[j]) {
+                        result[size++] = a.values[i++];
+                    } else if (a.values[i] > b.values[j]) {
+                        result[size++] = b.values[j++];
+                    } else {
+                        result[size++] = a.values[i++];
+                        j++;
+                    }
+                }
+                while (i < a.cardinality) {
+                    result[size++] = a.values[i++];
+                }
+                while (j < b.cardinality) {
+                    result[size++] = b.values[j++];
+                }
+
+                return new Container(result, null, size);
+            }
+
+            long[] result = a.toWords();
+
+            if (b.words == null) {
+                for (int i = 0; i < b.cardinality; i++) {
+                    result[b.values[i] >>> 6] |= 1L << b.values[i];
+                }
+            } else {
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] |= b.words[w];
+                }
+            }
+
+            return fromWords(result);
+        }
+
+        private static Container andNot(Container a, Container b) {
+            if (a.words == null) {
+                return filter(a, b, false);
+            }
+
+            long[] result = a.words.clone();
+
+            if (b.words == null) {
+                for (int i = 0; i < b.cardinality; i++) {
+                    result[b.values[i] >>> 6] &= ~(1L << b.values[i]);
+                }
+            } else {
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] &= ~b.words[w];
+                }
+            }
+
+            return fromWords(result);
+        }
+
+        private static Container filter(Container array, Container other, boolean keepContained) {
+            char[] result = new char[array.cardinality];
+            int size = 0;
+
+            for (int i = 0; i < array.cardinality; i++) {
+                if (other.contains(array.values[i]) == keepContained) {
+                    result[size++] = array.values[i];
+                }
+            }
+
+            return size == 0 ? null : new Container(result, null, size);
+        }
+
+        private static Container fromWords(long[] words) {
+            int cardinality = 0;
+
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new Container(null, words, cardinality);
+            }
+
+            char[] values = new char[cardinality];
+            int size = 0;
+
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+
+                while (word != 0) {
+                    values[size++] = (char) (w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+
+            return new Container(values, null, cardinality);
+        }
+    }
+}
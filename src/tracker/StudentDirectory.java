@@ -0,0 +1,254 @@
+package tracker;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class StudentDirectory implements Iterable<User> {
+    private static final int SEGMENT_SIZE = 1 << 20;
+    private static final int BLOCK_BITS = 12;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int SEGMENT_SHIFT = 32;
+
+    private final NameDictionary firstNames = new NameDictionary();
+    private final NameDictionary lastNames = new NameDictionary();
+    private final NameDictionary domains = new NameDictionary();
+    private final GradeStore grades;
+    private volatile byte[][] segments = new byte[0][];
+    private volatile AtomicLongArray[] offsets = new AtomicLongArray[0];
+    private volatile int size;
+    private int position = SEGMENT_SIZE;
+    private long bytes;
+
+    public StudentDirectory(GradeStore grades) {
+        this.grades = grades;
+    }
+
+    public synchronized void add(User user) {
+        long id = user.getId();
+        String email = user.getEmail();
+        int at = email.lastIndexOf('@');
+        byte[] local = (at < 0 ? email : email.substring(0, at)).getBytes(StandardCharsets.UTF_8);
+
+        byte[] record = new byte[4 * 5 + local.length];
+        int length = 0;
+        length = writeVarint(record, length, firstNames.encode(user.getFirstName()));
+        length = writeVarint(record, length, lastNames.encode(user.getLastName()));
+        length = writeVarint(record, length, at < 0 ? 0 : domains.encode(email.substring(at + 1)) + 1);
+        length = writeVarint(record, length, local.length);
+        System.arraycopy(local, 0, record, length, local.length);
+        length += local.length;
+
+        byte[][] currentSegments = segments;
+        byte[] segment = currentSegments.length == 0 ? null : currentSegments[currentSegments.length - 1];
+
+        if (segment == null || segment.length - position < length) {
+            segment = new byte[Math.max(SEGMENT_SIZE, length)];
+            currentSegments = Arrays.copyOf(currentSegments, currentSegments.length + 1);
+            currentSegments[currentSegments.length - 1] = segment;
+            segments = currentSegments;
+            position = 0;
+        }
+
+        System.arraycopy(record, 0, segment, position, length);
+        long offset = ((long) (currentSegments.length - 1) << SEGMENT_SHIFT) | position;
+        position += length;
+        bytes += length;
+
+        AtomicLongArray block = block(Math.toIntExact(id >>> BLOCK_BITS));
+
+        if (block.getAndSet((int) (id & (BLOCK_SIZE - 1)), offset + 1) == 0) {
+            size = size + 1;
+        }
+    }
+
+    public boolean contains(long id) {
+        return offset(id) != 0;
+    }
+
+    public User get(long id) {
+        long offset = offset(id);
+
+        if (offset == 0) {
+            return null;
+        }
+
+        byte[] segment = segments[(int) ((offset - 1) >>> SEGMENT_SHIFT)];
+        int[] cursor = {(int) (offset - 1)};
+        String firstName = firstNames.decode(readVarint(segment, cursor));
+        String lastName = lastNames.decode(readVarint(segment, cursor));
+        int domain = readVarint(segment, cursor);
+        int length = readVarint(segment, cursor);
+        String local = new String(segment, cursor[0], length, StandardCharsets.UTF_8);
+        String email = domain == 0 ? local : local + '@' + domains.decode(domain - 1);
+        return new User(id, firstName, lastName, email, grades);
+    }
+
+    public boolean emailEquals(long id, String normalizedEmail) {
+        long offset = offset(id);
+
+        if (offset == 0) {
+            return false;
+        }
+
+        byte[] segment = segments[(int) ((offset - 1) >>> SEGMENT_SHIFT)];
+        int[] cursor = {(int) (offset - 1)};
+        readVarint(segment, cursor);
+        readVarint(segment, cursor);
+        int domain = readVarint(segment, cursor);
+        int length = readVarint(segment, cursor);
+        int from = cursor[0];
+        String domainName = domain == 0 ? "" : domains.decode(domain - 1);
+
+        if (!isPlain(segment, from, length) || !isPlain(domainName)) {
+            return Database.normalizeEmail(get(id).getEmail()).equals(normalizedEmail);
+        }
+        if (normalizedEmail.length() != (domain == 0 ? length : length + 1 + domainName.length())) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (normalizedEmail.charAt(i) != toLowerCase(segment[from + i])) {
+                return false;
+            }
+        }
+
+        if (domain == 0) {
+            return true;
+        }
+        if (normalizedEmail.charAt(length) != '@') {
+            return false;
+        }
+
+        for (int i = 0; i < domainName.length(); i++) {
+            if (normalizedEmail.charAt(length + 1 + i) != toLowerCase(domainName.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long nextId(long from) {
+        AtomicLongArray[] current = offsets;
+
+        for (long id = Math.max(0, from); (id >>> BLOCK_BITS) < current.length; id++) {
+            AtomicLongArray block = current[(int) (id >>> BLOCK_BITS)];
+
+            if (block == null) {
+                id |= BLOCK_SIZE - 1;
+            } else if (block.get((int) (id & (BLOCK_SIZE - 1))) != 0) {
+                return id;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return new Iterator<>() {
+            private long next = nextId(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public User next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                User user = get(next);
+                next = nextId(next + 1);
+                return user;
+            }
+        };
+    }
+
+    public synchronized long getRecordBytes() {
+        return bytes;
+    }
+
+    private long offset(long id) {
+        AtomicLongArray[] current = offsets;
+        long index = id >>> BLOCK_BITS;
+
+        if (id < 0 || index >= current.length || current[(int) index] == null) {
+            return 0;
+        }
+        return current[(int) index].get((int) (id & (BLOCK_SIZE - 1)));
+    }
+
+    private AtomicLongArray block(int index) {
+        AtomicLongArray[] current = offsets;
+
+        if (index >= current.length || current[index] == null) {
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length));
+            current[index] = new AtomicLongArray(BLOCK_SIZE);
+            offsets = current;
+        }
+
+        return current[index];
+    }
+
+    private static boolean isPlain(byte[] bytes, int from, int length) {
+        for (int i = from; i < from + length; i++) {
+            if (!isPlain(bytes[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isPlain(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isPlain(value.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isPlain(int c) {
+        return c > ' ' && c < 0x7F;
+    }
+
+    private static int toLowerCase(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static int writeVarint(byte[] buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarint(byte[] buffer, int[] cursor) {
+        int value = 0;
+        int shift = 0;
+
+        while (true) {
+            byte b = buffer[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+public class StudentIndex {
+    private static final char START = '\u0002';
+    private static final int GRAM = 3;
+    static final int MIN_SUBSTRING = GRAM;
+
+    private final Map<Long, Posting> grams = new ConcurrentHashMap<>();
+
+    public void add(User user) {
+        List<String> terms = terms(user);
+        int count = 0;
+
+        for (int i = 0; i < terms.size(); i++) {
+            terms.set(i, pad(terms.get(i)));
+            count += Math.max(0, terms.get(i).length() - GRAM + 1);
+        }
+
+        long[] keys = new long[count];
+        count = 0;
+
+        for (String padded : terms) {
+            for (int i = 0; i + GRAM <= padded.length(); i++) {
+                keys[count++] = gram(padded, i);
+            }
+        }
+
+        Arrays.sort(keys);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                Posting posting = grams.get(keys[i]);
+
+                if (posting == null) {
+                    posting = grams.computeIfAbsent(keys[i], key -> new Posting());
+                }
+                posting.add(user.getId());
+            }
+        }
+    }
+
+    public List<User> search(String query, boolean prefix, int offset, int limit, LongFunction<User> students) {
+        String text = query.toLowerCase(Locale.ROOT);
+        List<User> page = new ArrayList<>();
+
+        if (text.isEmpty()) {
+            return page;
+        }
+        if (!prefix && text.length() < MIN_SUBSTRING) {
+            throw new IllegalArgumentException("Substring search needs at least " + MIN_SUBSTRING + " characters");
+        }
+
+        String key = prefix ? pad(text) : text;
+        int skipped = 0;
+        Posting candidates = null;
+
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            Posting posting = grams.get(gram(key, i));
+
+            if (posting == null) {
+                return page;
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        Posting.Cursor cursor = candidates.cursor();
+
+        while (page.size() < limit && cursor.hasNext()) {
+            User user = students.apply(cursor.next());
+
+            if (user != null && matches(user, text, prefix) && skipped++ >= offset) {
+                page.add(user);
+            }
+        }
+
+        return page;
+    }
+
+    private static boolean matches(User user, String text, boolean prefix) {
+        if (prefix) {
+            return startsWith(user.getFirstName(), text) || startsWith(user.getLastName(), text)
+                    || startsWith(user.getEmail(), text) || lastNameWordStartsWith(user.getLastName(), text);
+        }
+
+        return contains(user.getFirstName(), text) || contains(user.getLastName(), text)
+                || contains(user.getEmail(), text);
+    }
+
+    private static boolean startsWith(String value, String text) {
+        return value.regionMatches(true, 0, text, 0, text.length());
+    }
+
+    private static boolean lastNameWordStartsWith(String lastName, String text) {
+        for (int i = lastName.indexOf(' '); i >= 0; i = lastName.indexOf(' ', i + 1)) {
+            if (lastName.regionMatches(true, i + 1, text, 0, text.length())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean contains(String value, String text) {
+        for (int i = 0; i + text.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<String> terms(User user) {
+        List<String> terms = new ArrayList<>();
+        terms.add(user.getFirstName());
+        terms.add(user.getLastName());
+
+        for (String word : user.getLastName().split(" ")) {
+            if (!word.equals(user.getLastName())) {
+                terms.add(word);
+            }
+        }
+
+        terms.add(user.getEmail());
+        return terms;
+    }
+
+    private static String pad(String term) {
+        return "" + START + START + term.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String text, int from) {
+        long packed = (long) text.charAt(from) << 32 | (long) text.charAt(from + 1) << 16 | text.charAt(from + 2);
+        return packed * 0x9E3779B97F4A7C15L;
+    }
+
+    private static class Posting {
+        private volatile byte[] bytes = new byte[8];
+        private volatile int length;
+        private volatile int size;
+        private long last;
+
+        synchronized void add(long id) {
+            long delta = id - last;
+            long zigzag = (delta << 1) ^ (delta >> 63);
+            last = id;
+
+            if (length + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length + (bytes.length >> 1) + 10);
+            }
+
+            byte[] target = bytes;
+            int position = length;
+
+            while ((zigzag & ~0x7FL) != 0) {
+                target[position++] = (byte) (zigzag | 0x80);
+                zigzag >>>= 7;
+            }
+            target[position++] = (byte) zigzag;
+
+            length = position;
+            size += 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        Cursor cursor() {
+            int end = length;
+            return new Cursor(bytes, end);
+        }
+
+        private static class Cursor {
+            private final byte[] bytes;
+            private final int end;
+            private int position;
+            private long id;
+
+            Cursor(byte[] bytes, int end) {
+                this.bytes = bytes;
+                this.end = end;
+            }
+
+            boolean hasNext() {
+                return position < end;
+            }
+
+            long next() {
+                long zigzag = 0;
+                int shift = 0;
+                byte b;
+
+                do {
+                    b = bytes[position++];
+                    zigzag |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+
+                id += (zigzag >>> 1) ^ -(zigzag & 1);
+                return id;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package tracker;
+
+import java.util.Map;
+
+public interface TrackerCountersMXBean {
+    Map<String, Long> getRejections();
+
+    Map<String, Long> getGraduations();
+
+    long getNotificationsDelivered();
+
+    int getNotificationsPending();
+
+    int getStudents();
+}
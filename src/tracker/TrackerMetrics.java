@@ -0,0 +1,149 @@
+package tracker;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class TrackerMetrics {
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Rejection[] REJECTIONS = Rejection.values();
+
+    private final LatencyHistogram[] latencies;
+    private final LongAdder[] rejections;
+    private final AtomicLongArray graduations;
+
+    public TrackerMetrics(int courses) {
+        latencies = new LatencyHistogram[OPERATIONS.length];
+        rejections = new LongAdder[REJECTIONS.length];
+        graduations = new AtomicLongArray(courses);
+
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < rejections.length; i++) {
+            rejections[i] = new LongAdder();
+        }
+    }
+
+    public void record(Operation operation, long startNanos) {
+        latencies[operation.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public void reject(Rejection rejection) {
+        rejections[rejection.ordinal()].increment();
+    }
+
+    public long getRejections(Rejection rejection) {
+        return rejections[rejection.ordinal()].sum();
+    }
+
+    public void graduate(int course) {
+        graduations.incrementAndGet(course);
+    }
+
+    public long getGraduations(int course) {
+        return graduations.get(course);
+    }
+
+    public void registerMBeans(TrackerStore database) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        for (Operation operation : OPERATIONS) {
+            server.registerMBean(new OperationMetrics(getLatency(operation)),
+                    new ObjectName("tracker:type=Operation,name=" + operation.name()));
+        }
+
+        server.registerMBean(new TrackerCounters(database), new ObjectName("tracker:type=Counters"));
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+
+    private static class OperationMetrics implements OperationMetricsMXBean {
+        private final LatencyHistogram histogram;
+
+        OperationMetrics(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public long getP50Micros() {
+            return micros(histogram.getPercentile(50));
+        }
+
+        @Override
+        public long getP99Micros() {
+            return micros(histogram.getPercentile(99));
+        }
+
+        @Override
+        public long getP999Micros() {
+            return micros(histogram.getPercentile(99.9));
+        }
+
+        @Override
+        public long getMaxMicros() {
+            return micros(histogram.getMax());
+        }
+    }
+
+    private static class TrackerCounters implements TrackerCountersMXBean {
+        private final TrackerStore database;
+
+        TrackerCounters(TrackerStore database) {
+            this.database = database;
+        }
+
+        @Override
+        public Map<String, Long> getRejections() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+
+            for (Rejection rejection : REJECTIONS) {
+                counts.put(rejection.name(), database.getMetrics().getRejections(rejection));
+            }
+
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getGraduations() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+
+            for (int i = 0; i < database.getNumberOfCourses(); i++) {
+                counts.put(database.getCourseName(i), database.getMetrics().getGraduations(i));
+            }
+
+            return counts;
+        }
+
+        @Override
+        public long getNotificationsDelivered() {
+            return database.getDeliveredNotifications();
+        }
+
+        @Override
+        public int getNotificationsPending() {
+            return database.getPendingNotifications();
+        }
+
+        @Override
+        public int getStudents() {
+            return database.getNumberOfStudents();
+        }
+    }
+}
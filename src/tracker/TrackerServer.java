@@ -0,0 +1,81 @@
+package tracker;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TrackerServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7070;
+
+    private final TrackerStore database;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+
+    public TrackerServer(TrackerStore database, int port) throws IOException {
+        this.database = database;
+        this.serverSocket = new ServerSocket(port, 512, InetAddress.getLoopbackAddress());
+        this.sessions = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+
+            sessions.submit(() -> runSession(socket));
+        }
+    }
+
+    public void start() {
+        Thread.ofVirtual().name("tracker-server-accept").start(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println("Server stopped: " + e.getMessage());
+            }
+        });
+    }
+
+    private void runSession(Socket socket) {
+        try (socket;
+             InputStream in = socket.getInputStream();
+             PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16),
+                     false, StandardCharsets.UTF_8)) {
+            try {
+                new LearningProgressTracker(database, in, out).run();
+            } catch (NoSuchElementException | UncheckedIOException e) {
+                // client closed the connection without 'exit'
+            }
+        } catch (IOException e) {
+            // session socket failed; other sessions are unaffected
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdown();
+    }
+}
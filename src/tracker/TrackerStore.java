@@ -0,0 +1,66 @@
+package tracker;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public interface TrackerStore extends AutoCloseable {
+    User register(Credentials credentials);
+
+    void reserveCapacity(int expectedStudents);
+
+    int getNumberOfStudents();
+
+    boolean studentExists(String email);
+
+    boolean studentExists(long id);
+
+    User getStudent(long id);
+
+    List<User> search(String query, boolean prefix, int offset, int limit);
+
+    void update(long id, int[] points);
+
+    void update(PointsBatch batch);
+
+    int getNumberOfCourses();
+
+    String getCourseName(int course);
+
+    int getCourseIndex(String courseName);
+
+    boolean courseExists(String courseName);
+
+    int getMinCompletion(int course);
+
+    void printStudentsList(ReportWriter report);
+
+    CourseStatistics getCourseStatistics();
+
+    void forEachRanked(int course, long offset, long limit, Course.RankedStudentConsumer action);
+
+    ScoreDistribution getDistribution(int course);
+
+    ActivityReport getActivityReport(long windowMillis);
+
+    StudentBitmap getStudentIds();
+
+    StudentBitmap getEnrolledStudents(int course);
+
+    StudentBitmap getGraduatedStudents(int course);
+
+    NotificationOutbox.DispatchResult notifyGraduates(NotificationSink fallback) throws IOException;
+
+    void startNotifications(NotificationSink sink, int capacity, int batchSize);
+
+    long getDeliveredNotifications();
+
+    int getPendingNotifications();
+
+    TrackerMetrics getMetrics();
+
+    void writeSnapshot(Path path) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -1,24 +1,55 @@
 package tracker;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class User {
-    private static long counter = 0;
+    static final long MAX_ID = 0xFFFFFFFFL;
+
+    private static final AtomicLong counter = new AtomicLong();
     private final long id;
     private String firstName;
     private String lastName;
     private String email;
-    private Map<String, Integer> grades;
+    private volatile GradeStore grades;
 
     public User(String firstName, String lastName, String email) {
-        this.id = ++counter;
+        this.id = counter.incrementAndGet();
+
+        if (id > MAX_ID) {
+            throw new IllegalStateException("Student id limit reached");
+        }
+
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
-        this.grades = new HashMap<>();
+    }
+
+    User(long id, String firstName, String lastName, String email) {
+        if (id <= 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Student id out of range: " + id);
+        }
+
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        counter.accumulateAndGet(id, Math::max);
+    }
+
+    User(long id, String firstName, String lastName, String email, GradeStore grades) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.grades = grades;
+    }
+
+    static long getLastId() {
+        return counter.get();
+    }
+
+    static void advanceCounter(long lastId) {
+        counter.accumulateAndGet(lastId, Math::max);
     }
 
     public long getId() {
@@ -29,28 +60,38 @@ public class User {
         return email;
     }
 
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
     public String getName() {
         return firstName + " " + lastName;
     }
 
-    public void incrementGrade(String courseName, int grade) {
-        if (!grades.containsKey(courseName) && grade == 0) {
-            return;
-        }
-
-        grades.put(courseName, grades.getOrDefault(courseName, 0) + grade);
+    void attach(GradeStore grades) {
+        this.grades = grades;
     }
 
-    public boolean isEnrolledIn(String courseName) {
-        return grades.containsKey(courseName);
+    public boolean isEnrolledIn(int course) {
+        return grades != null && grades.isEnrolled(course, id);
     }
 
     @Override
     public String toString() {
-        return id + " points: " +
-                "Java=" + grades.getOrDefault("Java", 0) +
-                "; DSA=" + grades.getOrDefault("DSA", 0) +
-                "; Databases=" + grades.getOrDefault("Databases", 0) +
-                "; Spring=" + grades.getOrDefault("Spring", 0);
+        StringBuilder builder = new StringBuilder();
+        builder.append(id).append(" points: ");
+
+        for (int course = 0; grades != null && course < grades.getNumberOfCourses(); course++) {
+            if (course > 0) {
+                builder.append("; ");
+            }
+            builder.append(grades.getCourseName(course)).append('=').append(grades.getPoints(course, id));
+        }
+
+        return builder.toString();
     }
 }
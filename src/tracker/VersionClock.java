@@ -0,0 +1,63 @@
+package tracker;
+
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+public class VersionClock {
+    static final long NO_READERS = Long.MAX_VALUE;
+
+    private final StampedLock gate = new StampedLock();
+    private final TreeMap<Long, Integer> readers = new TreeMap<>();
+    private volatile long epoch = 1;
+    private volatile long oldestReader = NO_READERS;
+
+    public long beginWrite() {
+        return gate.readLock();
+    }
+
+    public void endWrite(long stamp) {
+        gate.unlockRead(stamp);
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public boolean hasReaders() {
+        return oldestReader != NO_READERS;
+    }
+
+    public <T> T open(LongFunction<T> capture) {
+        long stamp = gate.writeLock();
+
+        try {
+            long version = epoch;
+            epoch = version + 1;
+            T view = capture.apply(version);
+            readers.merge(version, 1, Integer::sum);
+            oldestReader = readers.firstKey();
+            return view;
+        } finally {
+            gate.unlockWrite(stamp);
+        }
+    }
+
+    public void close(long version, LongConsumer reclaim) {
+        long oldest;
+        long stamp = gate.writeLock();
+
+        try {
+            if (readers.merge(version, -1, Integer::sum) == 0) {
+                readers.remove(version);
+            }
+            oldest = readers.isEmpty() ? NO_READERS : readers.firstKey();
+            oldestReader = oldest;
+        } finally {
+            gate.unlockWrite(stamp);
+        }
+
+        reclaim.accept(oldest);
+    }
+}
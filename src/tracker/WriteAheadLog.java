@@ -0,0 +1,422 @@
+package tracker;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+public class WriteAheadLog implements AutoCloseable {
+    public enum Durability {
+        ASYNC, GROUP_COMMIT, SYNC
+    }
+
+    private static final int MAGIC = 0x4C505457;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 26;
+
+    static final byte STUDENT = 1;
+    static final byte POINTS = 2;
+    static final byte DELTA = 3;
+    static final byte NOTIFIED = 4;
+
+    private final FileChannel channel;
+    private final Durability durability;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream(1 << 16);
+    private long position;
+    private long appendedSeq;
+    private long durableSeq;
+    private IOException failure;
+    private boolean closed;
+
+    private WriteAheadLog(FileChannel channel, Durability durability, long position) {
+        this.channel = channel;
+        this.durability = durability;
+        this.position = position;
+        this.flusher = durability == Durability.SYNC ? null : new Thread(this::flushLoop, "tracker-wal-flusher");
+
+        if (flusher != null) {
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    public static WriteAheadLog open(Path path, Durability durability) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        if (channel.size() < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+        }
+
+        channel.position(channel.size());
+        return new WriteAheadLog(channel, durability, channel.size());
+    }
+
+    public static long replay(Path path, Database database) throws IOException {
+        return replay(path, database, HEADER_SIZE);
+    }
+
+    public static long replay(Path path, Database database, long fromPosition) throws IOException {
+        long size = Files.exists(path) ? Files.size(path) : 0;
+
+        if (fromPosition > Math.max(size, HEADER_SIZE)) {
+            throw new IOException("Log ends at " + size + ", before snapshot position " + fromPosition + ": " + path);
+        }
+
+        if (size < HEADER_SIZE) {
+            return 0;
+        }
+
+        long valid = Math.max(fromPosition, HEADER_SIZE);
+        long records = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a learning progress tracker log: " + path);
+            }
+
+            in.skipNBytes(valid - HEADER_SIZE);
+
+            CRC32 checksum = new CRC32();
+
+            while (true) {
+                byte[] payload;
+
+                try {
+                    int length = in.readInt();
+
+                    if (length <= 0 || length > MAX_RECORD_SIZE) {
+                        break;
+                    }
+
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    checksum.reset();
+                    checksum.update(payload);
+
+                    if (in.readInt() != (int) checksum.getValue()) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+
+                apply(payload, database);
+                valid += 4 + payload.length + 4;
+                records += 1;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > valid) {
+                channel.truncate(valid);
+            }
+        }
+
+        return records;
+    }
+
+    private static void apply(byte[] payload, Database database) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+        switch (in.readByte()) {
+            case STUDENT:
+                database.restoreStudent(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF());
+                break;
+            case POINTS: {
+                long id = in.readLong();
+                database.update(id, readInts(in, database.getNumberOfCourses()));
+                break;
+            }
+            case DELTA: {
+                long id = in.readLong();
+                database.applyDelta(id, readInts(in, database.getNumberOfCourses() * 3));
+                break;
+            }
+            case NOTIFIED: {
+                int course = in.readInt();
+                long[] ids = new long[in.readInt()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = in.readLong();
+                }
+                database.restoreNotified(course, ids);
+                break;
+            }
+            default:
+                throw new IOException("Unknown log record type");
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int expected) throws IOException {
+        int[] values = new int[in.readInt()];
+
+        if (values.length != expected) {
+            throw new IOException("Log record does not match the configured courses");
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    public long appendStudent(User user) {
+        lock.lock();
+        try {
+            beginRecord(STUDENT);
+            recordOut.writeLong(user.getId());
+            recordOut.writeUTF(user.getFirstName());
+            recordOut.writeUTF(user.getLastName());
+            recordOut.writeUTF(user.getEmail());
+            return endRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendPoints(long id, int[] points) {
+        lock.lock();
+        try {
+            beginRecord(POINTS);
+            recordOut.writeLong(id);
+            recordOut.writeInt(points.length);
+            for (int value : points) {
+                recordOut.writeInt(value);
+            }
+            return endRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendDelta(long id, int[] delta) {
+        lock.lock();
+        try {
+            beginRecord(DELTA);
+            recordOut.writeLong(id);
+            recordOut.writeInt(delta.length);
+            for (int value : delta) {
+                recordOut.writeInt(value);
+            }
+            return endRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendNotified(int course, Collection<Long> ids) {
+        lock.lock();
+        try {
+            beginRecord(NOTIFIED);
+            recordOut.writeInt(course);
+            recordOut.writeInt(ids.size());
+            for (long id : ids) {
+                recordOut.writeLong(id);
+            }
+            return endRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPosition() {
+        lock.lock();
+        try {
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void awaitDurable(long seq) {
+        if (durability == Durability.GROUP_COMMIT) {
+            awaitWritten(seq);
+        }
+    }
+
+    public long sync() throws IOException {
+        long target;
+
+        lock.lock();
+        try {
+            target = position;
+            awaitWritten(appendedSeq);
+        } finally {
+            lock.unlock();
+        }
+
+        channel.force(false);
+        return target;
+    }
+
+    private void awaitWritten(long seq) {
+        lock.lock();
+        try {
+            while (durableSeq < seq && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            checkFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void beginRecord(byte type) throws IOException {
+        checkFailure();
+
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+
+        record.reset();
+        recordOut.writeByte(type);
+    }
+
+    private long endRecord() throws IOException {
+        crc.reset();
+        crc.update(record.toByteArray());
+        writeInt(buffer, record.size());
+        record.writeTo(buffer);
+        writeInt(buffer, (int) crc.getValue());
+        position += 4 + record.size() + 4;
+        appendedSeq += 1;
+
+        if (durability == Durability.SYNC) {
+            write(buffer, true);
+            buffer.reset();
+            durableSeq = appendedSeq;
+        } else {
+            pending.signal();
+        }
+
+        return appendedSeq;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            long target;
+
+            lock.lock();
+            try {
+                while (buffer.size() == 0 && !closed) {
+                    pending.awaitUninterruptibly();
+                }
+
+                if (buffer.size() == 0) {
+                    return;
+                }
+
+                batch = buffer;
+                buffer = spare;
+                spare = batch;
+                target = appendedSeq;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+
+            try {
+                write(batch, durability == Durability.GROUP_COMMIT);
+            } catch (IOException e) {
+                error = e;
+            }
+            batch.reset();
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSeq = target;
+                }
+                flushed.signalAll();
+
+                if (failure != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(ByteArrayOutputStream bytes, boolean force) throws IOException {
+        bytes.writeTo(Channels.newOutputStream(channel));
+
+        if (force) {
+            channel.force(false);
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            pending.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        channel.force(true);
+        channel.close();
+        checkFailure();
+    }
+}
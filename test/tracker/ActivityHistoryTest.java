@@ -0,0 +1,67 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ActivityHistoryTest {
+    private static final long BUCKET = 60_000;
+    private static final int BUCKETS = 10;
+
+    @Test
+    void countsWithinTheWindow() {
+        long[] now = {5 * BUCKET};
+        ActivityHistory history = new ActivityHistory(() -> now[0], BUCKET, BUCKETS);
+
+        history.record(2, 10);
+        now[0] += BUCKET;
+        history.record(1, 5);
+
+        assertEquals(1, history.getSubmissions(BUCKET));
+        assertEquals(3, history.getSubmissions(2 * BUCKET));
+        assertEquals(15, history.getPoints(2 * BUCKET));
+    }
+
+    @Test
+    void slotIsResetWhenItComesRound() {
+        long[] now = {5 * BUCKET};
+        ActivityHistory history = new ActivityHistory(() -> now[0], BUCKET, BUCKETS);
+
+        history.record(2, 10);
+        now[0] += BUCKETS * BUCKET;
+        history.record(1, 5);
+
+        assertEquals(1, history.getSubmissions(history.getMaxWindowMillis()));
+        assertEquals(5, history.getPoints(history.getMaxWindowMillis()));
+    }
+
+    @Test
+    void staleSubmissionDoesNotLeakIntoTheNextRound() {
+        long old = 5 * BUCKET;
+        long current = old + BUCKETS * BUCKET;
+        Deque<Long> readings = new ArrayDeque<>();
+        ActivityHistory[] history = new ActivityHistory[1];
+
+        history[0] = new ActivityHistory(() -> {
+            if (readings.isEmpty()) {
+                return current;
+            }
+
+            long reading = readings.pop();
+
+            if (reading == old) {
+                history[0].record(1, 5);
+            }
+            return reading;
+        }, BUCKET, BUCKETS);
+
+        readings.push(old);
+        history[0].record(7, 70);
+
+        assertEquals(1, history[0].getSubmissions(BUCKET));
+        assertEquals(5, history[0].getPoints(BUCKET));
+    }
+}
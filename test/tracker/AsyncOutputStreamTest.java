@@ -0,0 +1,79 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncOutputStreamTest {
+    @Test
+    void flushHandsOffWithoutWaitingAndDrainWaits() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                target.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                target.write(bytes, offset, length);
+            }
+        };
+
+        try (AsyncOutputStream out = new AsyncOutputStream(blocked)) {
+            out.write("Points updated\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            out.write("Bye!\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            assertEquals("", target.toString(StandardCharsets.UTF_8));
+
+            release.countDown();
+            out.drain();
+
+            assertEquals("Points updated\nBye!\n", target.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void closeDrainsTheOutput() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AsyncOutputStream out = new AsyncOutputStream(target);
+
+        for (int i = 0; i < 100_000; i++) {
+            out.write("line\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        out.close();
+
+        assertEquals(500_000, target.size());
+    }
+
+    @Test
+    void drainReportsAWriteFailure() throws IOException {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        AsyncOutputStream out = new AsyncOutputStream(broken);
+        out.write('x');
+
+        assertThrows(IOException.class, out::drain);
+        assertThrows(IOException.class, out::close);
+    }
+}
@@ -0,0 +1,63 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CohortQueryTest {
+    @Test
+    void enrolledCohortFollowsTheGradeStore() {
+        Database database = new Database(70_000);
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < 70_000; i++) {
+            ids.add(database.register(Credentials.valid("First", "Last", "cohort" + i + "@example.com")).getId());
+        }
+
+        List<Long> java = new ArrayList<>();
+        List<Long> javaNotSpring = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            long id = ids.get(i);
+            int javaPoints = i % 3 == 0 ? 1 : 0;
+            int springPoints = i % 2 == 0 ? 1 : 0;
+            database.update(id, new int[]{javaPoints, 0, 0, springPoints});
+
+            if (javaPoints > 0) {
+                java.add(id);
+
+                if (springPoints == 0) {
+                    javaNotSpring.add(id);
+                }
+            }
+        }
+
+        StudentBitmap enrolled = CohortQuery.evaluate(database, "enrolled:Java");
+        assertEquals(java.size(), enrolled.getCardinality());
+        assertEquals(java, enrolled.getIds(0, Integer.MAX_VALUE));
+
+        StudentBitmap difference = CohortQuery.evaluate(database, "enrolled:Java andnot enrolled:Spring");
+        assertEquals(javaNotSpring, difference.getIds(0, Integer.MAX_VALUE));
+        assertEquals(0, CohortQuery.evaluate(database, "enrolled:DSA").getCardinality());
+    }
+
+    @Test
+    void deepNestingIsRejectedAsAnIncorrectQuery() {
+        Database database = new Database();
+        database.register(Credentials.valid("First", "Last", "nested@example.com"));
+
+        assertEquals(1, CohortQuery.evaluate(database, "(".repeat(64) + "all" + ")".repeat(64)).getCardinality());
+
+        IllegalArgumentException tooDeep = assertThrows(IllegalArgumentException.class,
+                () -> CohortQuery.evaluate(database, "(".repeat(65) + "all" + ")".repeat(65)));
+        assertEquals("Incorrect query", tooDeep.getMessage());
+
+        IllegalArgumentException unbalanced = assertThrows(IllegalArgumentException.class,
+                () -> CohortQuery.evaluate(database, "(".repeat(100_000) + "all"));
+        assertEquals("Incorrect query", unbalanced.getMessage());
+    }
+}
@@ -0,0 +1,52 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailIndexTest {
+    private final StudentDirectory directory = new StudentDirectory(new GradeStore("Java"));
+    private final EmailIndex index = new EmailIndex(directory);
+
+    private void add(long id) {
+        String email = "student" + id + "@example.com";
+        directory.add(new User(id, "First", "Last", email));
+        index.put(email, id);
+    }
+
+    @Test
+    void reserveGrowsEveryStripeUpFront() {
+        int initial = index.getCapacity();
+        index.reserve(100_000);
+        int reserved = index.getCapacity();
+
+        assertTrue(reserved >= 2 * 100_000);
+        assertTrue(reserved > initial);
+
+        for (long id = 1; id <= 10_000; id++) {
+            add(id);
+        }
+
+        assertEquals(reserved, index.getCapacity());
+    }
+
+    @Test
+    void reserveKeepsExistingEntries() {
+        for (long id = 1; id <= 1_000; id++) {
+            add(id);
+        }
+
+        int capacity = index.getCapacity();
+        index.reserve(10);
+        assertEquals(capacity, index.getCapacity());
+
+        index.reserve(50_000);
+
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(index.contains("student" + id + "@example.com"));
+        }
+        assertFalse(index.contains("student1001@example.com"));
+    }
+}
@@ -0,0 +1,91 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationOutboxTest {
+    @TempDir
+    Path directory;
+
+    private static long register(Database database, String name) {
+        return database.register(Credentials.valid(name, "Lee", name.toLowerCase() + "@example.com")).getId();
+    }
+
+    private static List<Long> notified(Database database) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        database.getOutbox().dispatchAll(batch -> batch.forEach(notification -> ids.add(notification.getStudentId())));
+        return ids;
+    }
+
+    @Test
+    void notificationsGoOutByCourseThenId() throws IOException {
+        Database database = new Database();
+        long ann = register(database, "Ann");
+        long bob = register(database, "Bob");
+        List<String> order = new ArrayList<>();
+
+        database.update(bob, new int[] {0, 400, 0, 0});
+        database.update(bob, new int[] {600, 0, 0, 0});
+        database.update(ann, new int[] {0, 400, 0, 0});
+        database.update(ann, new int[] {600, 0, 0, 0});
+        database.getOutbox().dispatchAll(batch -> batch.forEach(
+                notification -> order.add(notification.getCourseName() + " " + notification.getStudentId())));
+
+        assertEquals(List.of("Java " + ann, "Java " + bob, "DSA " + ann, "DSA " + bob), order);
+    }
+
+    @Test
+    void updateDuringDispatchKeepsTheStudentPendingAcrossRestart() throws Exception {
+        Path log = directory.resolve("tracker.wal");
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        long id;
+
+        try (Database database = Database.open(log, WriteAheadLog.Durability.SYNC)) {
+            id = register(database, "Ann");
+            database.update(id, new int[] {600, 0, 0, 0});
+
+            CompletableFuture<NotificationOutbox.DispatchResult> dispatch = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return database.getOutbox().dispatchAll(batch -> {
+                        delivering.countDown();
+
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            assertTrue(delivering.await(10, TimeUnit.SECONDS));
+            database.update(id, new int[] {5, 0, 0, 0});
+            release.countDown();
+
+            assertEquals(1, dispatch.get(10, TimeUnit.SECONDS).getMessages());
+            assertEquals(1, database.getOutbox().getPendingCount());
+        }
+
+        try (Database reopened = Database.open(log, WriteAheadLog.Durability.SYNC)) {
+            assertEquals(List.of(id), notified(reopened));
+        }
+
+        try (Database reopened = Database.open(log, WriteAheadLog.Durability.SYNC)) {
+            assertEquals(List.of(), notified(reopened));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportWriterTest {
+    private static final int[] TOTALS = {1, 3, 7, 8, 400, 480, 550, 600, 1_000_003, Integer.MAX_VALUE};
+    private static final int[] EDGES = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -2_147_483_645, -1_000_000, -1,
+            0, 1, 1_000_000, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+
+    private static String percent(int points, int total) {
+        StringWriter out = new StringWriter();
+        ReportWriter report = new ReportWriter(out);
+        report.appendPercent(points, total).flush();
+        return out.toString();
+    }
+
+    private static String expected(int points, int total) {
+        // the leaderboard's original formatting, as a fraction rounded to three places
+        BigDecimal fraction = BigDecimal.valueOf((double) points / total * 100).movePointLeft(2);
+        return fraction.setScale(3, RoundingMode.HALF_UP).movePointRight(2) + "%";
+    }
+
+    @Test
+    void percentMatchesBigDecimalRounding() {
+        for (int total : TOTALS) {
+            for (int points = -5_000; points <= 5_000; points++) {
+                assertEquals(expected(points, total), percent(points, total), points + "/" + total);
+            }
+            for (int points : EDGES) {
+                assertEquals(expected(points, total), percent(points, total), points + "/" + total);
+            }
+        }
+    }
+
+    @Test
+    void negativePercentKeepsTheSignInFront() {
+        assertEquals("-12.5%", percent(-1, 8));
+        assertEquals("-357913940.8%", percent(-2_147_483_645, 600));
+        assertEquals("0.0%", percent(-1, 1_000_003));
+        assertEquals("0.0%", percent(5, 0));
+    }
+}
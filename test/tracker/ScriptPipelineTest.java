@@ -0,0 +1,58 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ScriptPipelineTest {
+    @Test
+    void readerFailureReachesTheConsumer() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("Stream corrupted");
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                throw new IllegalStateException("Stream corrupted");
+            }
+        };
+        InputStream in = new SequenceInputStream(
+                new ByteArrayInputStream("add students\n".getBytes(StandardCharsets.UTF_8)), failing);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (ScriptPipeline script = new ScriptPipeline(in, 4, 2)) {
+                assertThrows(IllegalStateException.class, () -> {
+                    while (script.next()) {
+                        script.bytes();
+                    }
+                });
+            }
+        });
+    }
+
+    @Test
+    void readerIoFailureReachesTheConsumer() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (ScriptPipeline script = new ScriptPipeline(failing, 4, 2)) {
+                assertThrows(IOException.class, script::next);
+            }
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedDatabaseTest {
+    private static final int SHARDS = 3;
+    private static final int STUDENTS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void frontEndOutputMatchesASingleDatabase() throws IOException {
+        try (ShardedDatabase sharded = new ShardedDatabase(SHARDS);
+             Database single = new Database(STUDENTS)) {
+            List<Long> ids = new ArrayList<>();
+
+            for (int i = 0; i < STUDENTS; i++) {
+                User user = sharded.register(Credentials.valid("First" + i, "Last", "student" + i + "@example.com"));
+                single.addStudent(new User(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail()));
+                ids.add(user.getId());
+            }
+
+            for (int i = 0; i < SHARDS; i++) {
+                assertTrue(sharded.getShard(i).getNumberOfStudents() > 0);
+            }
+
+            String script = script(ids);
+            assertEquals(normalize(run(single, script)), normalize(run(sharded, script)));
+        }
+    }
+
+    @Test
+    void anEmailTakenOnOneShardIsTakenOnAll() throws IOException {
+        try (ShardedDatabase sharded = new ShardedDatabase(SHARDS)) {
+            List<User> users = new ArrayList<>();
+
+            for (int i = 0; i < 3 * 4096; i++) {
+                users.add(sharded.register(Credentials.valid("First", "Last", "taken" + i + "@example.com")));
+            }
+
+            for (User user : users) {
+                String shouted = " TAKEN" + user.getEmail().substring("taken".length());
+                assertNull(sharded.register(Credentials.valid("Other", "Name", shouted)));
+                assertEquals(user.getEmail(), sharded.getStudent(user.getId()).getEmail());
+            }
+
+            assertEquals(users.size(), sharded.getNumberOfStudents());
+        }
+    }
+
+    @Test
+    void reopeningRestoresEveryShard() throws IOException {
+        Path log = directory.resolve("tracker.wal");
+        Path snapshot = directory.resolve("tracker.snapshot");
+        String expected;
+        List<Long> ids = new ArrayList<>();
+
+        try (ShardedDatabase sharded = ShardedDatabase.open(log, WriteAheadLog.Durability.GROUP_COMMIT, null,
+                CourseRegistry.defaults(), SHARDS)) {
+            for (int i = 0; i < STUDENTS; i++) {
+                ids.add(sharded.register(Credentials.valid("First", "Last", "wal" + i + "@example.com")).getId());
+            }
+
+            SplittableRandom random = new SplittableRandom(7);
+
+            for (int i = 0; i < STUDENTS / 2; i++) {
+                sharded.update(ids.get(random.nextInt(ids.size())), points(random));
+            }
+
+            sharded.writeSnapshot(snapshot);
+
+            for (int i = 0; i < STUDENTS / 2; i++) {
+                sharded.update(ids.get(random.nextInt(ids.size())), points(random));
+            }
+
+            expected = run(sharded, "statistics\nJava\nDSA top 50\nSpring distribution\nback\nlist\nexit\n");
+        }
+
+        try (ShardedDatabase reopened = ShardedDatabase.open(log, WriteAheadLog.Durability.GROUP_COMMIT, snapshot,
+                CourseRegistry.defaults(), SHARDS)) {
+            assertEquals(expected,
+                    run(reopened, "statistics\nJava\nDSA top 50\nSpring distribution\nback\nlist\nexit\n"));
+            assertNotNull(reopened.getStudent(ids.get(ids.size() - 1)));
+        }
+    }
+
+    private static int[] points(SplittableRandom random) {
+        return new int[] {random.nextInt(200), random.nextInt(150), random.nextInt(160), random.nextInt(180)};
+    }
+
+    private static String script(List<Long> ids) {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder script = new StringBuilder("add students\n")
+                .append("Again Student STUDENT7@example.com\n")
+                .append("bad\n")
+                .append("back\n")
+                .append("add points\n");
+
+        for (int i = 0; i < 3 * STUDENTS; i++) {
+            int[] points = points(random);
+            script.append(ids.get(random.nextInt(ids.size())));
+
+            for (int value : points) {
+                script.append(' ').append(random.nextInt(3) == 0 ? 0 : value);
+            }
+            script.append('\n');
+        }
+
+        script.append("-1 1 1 1 1\n")
+                .append("back\n")
+                .append("notify\n")
+                .append("add points\n");
+
+        for (int i = 0; i < STUDENTS / 10; i++) {
+            script.append(ids.get(random.nextInt(ids.size()))).append(" 5 0 0 0\n");
+        }
+
+        script.append("back\n")
+                .append("statistics\n")
+                .append("Java\n")
+                .append("DSA top 25\n")
+                .append("Databases page 3\n")
+                .append("Spring page 1000\n")
+                .append("Java distribution\n")
+                .append("activity 1h\n")
+                .append("Unknown\n")
+                .append("back\n")
+                .append("list\n")
+                .append("find\n")
+                .append(ids.get(0)).append('\n')
+                .append(ids.get(ids.size() - 1)).append('\n')
+                .append("0\n")
+                .append("back\n")
+                .append("search\n")
+                .append("student12*\n")
+                .append("first99 page 2\n")
+                .append("back\n")
+                .append("cohort\n")
+                .append("graduated:Java count\n")
+                .append("enrolled:DSA andnot (graduated:DSA or enrolled:Spring) page 4\n")
+                .append("all andnot enrolled:Java\n")
+                .append("back\n")
+                .append("notify\n")
+                .append("notify\n")
+                .append("exit\n");
+        return script.toString();
+    }
+
+    private static String run(TrackerStore database, String script) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(output, false, StandardCharsets.UTF_8);
+        new LearningProgressTracker(database, new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), out)
+                .run();
+        out.flush();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> normalize(String output) {
+        // shards deliver their notifications one shard after another
+        List<String> lines = Arrays.asList(output.split(System.lineSeparator()));
+        List<String> normalized = new ArrayList<>();
+
+        for (int i = 0; i < lines.size(); ) {
+            if (!lines.get(i).startsWith("To: ")) {
+                normalized.add(lines.get(i++));
+                continue;
+            }
+
+            List<String> messages = new ArrayList<>();
+
+            while (i < lines.size() && lines.get(i).startsWith("To: ")) {
+                messages.add(String.join("\n", lines.subList(i, i + 3)));
+                i += 3;
+            }
+
+            messages.sort(null);
+            normalized.addAll(messages);
+        }
+
+        return normalized;
+    }
+}
@@ -0,0 +1,41 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentDirectoryTest {
+    private final StudentDirectory directory = new StudentDirectory(new GradeStore("Java"));
+
+    private void add(long id, String email) {
+        directory.add(new User(id, "First", "Last", email));
+    }
+
+    @Test
+    void emailComparisonIgnoresCase() {
+        add(1, "Ann.Lee@Example.COM");
+
+        assertTrue(directory.emailEquals(1, "ann.lee@example.com"));
+        assertFalse(directory.emailEquals(1, "ann.lee@example.co"));
+        assertFalse(directory.emailEquals(1, "ann.le@example.com"));
+        assertFalse(directory.emailEquals(1, "ann.lee@example.comm"));
+        assertFalse(directory.emailEquals(2, "ann.lee@example.com"));
+    }
+
+    @Test
+    void emailWithoutDomainIsComparedWhole() {
+        add(1, "ann");
+
+        assertTrue(directory.emailEquals(1, "ann"));
+        assertFalse(directory.emailEquals(1, "ann@"));
+    }
+
+    @Test
+    void nonAsciiEmailFallsBackToNormalization() {
+        add(1, " Jürgen@Example.com");
+
+        assertTrue(directory.emailEquals(1, Database.normalizeEmail(" Jürgen@Example.com")));
+        assertFalse(directory.emailEquals(1, "jurgen@example.com"));
+    }
+}
@@ -0,0 +1,49 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StudentIndexTest {
+    private final StudentIndex index = new StudentIndex();
+    private final Map<Long, User> students = new HashMap<>();
+
+    private void add(long id, String firstName, String lastName, String email) {
+        User user = new User(id, firstName, lastName, email);
+        students.put(id, user);
+        index.add(user);
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    @Test
+    void shortPrefixesAreAnsweredFromTheIndex() {
+        add(1, "Ann", "Lee", "ann@example.com");
+        add(2, "Bob", "van Dyke", "bob@example.com");
+
+        assertEquals(List.of(1L), ids(index.search("a", true, 0, 20, students::get)));
+        assertEquals(List.of(2L), ids(index.search("dy", true, 0, 20, students::get)));
+    }
+
+    @Test
+    void substringsMatchInsideNames() {
+        add(1, "Ann", "Lee", "ann@example.com");
+        add(2, "Bob", "van Dyke", "bob@example.com");
+
+        assertEquals(List.of(2L), ids(index.search("yke", false, 0, 20, students::get)));
+    }
+
+    @Test
+    void shortSubstringsAreRejected() {
+        add(1, "Ann", "Lee", "ann@example.com");
+
+        assertThrows(IllegalArgumentException.class, () -> index.search("nn", false, 0, 20, students::get));
+    }
+}
@@ -0,0 +1,128 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrackerServerTest {
+    private static final int CLIENTS = 50;
+    private static final int STUDENTS_PER_CLIENT = 40;
+    private static final int UPDATES_PER_CLIENT = 200;
+
+    @Test
+    void concurrentClientsShareOneDatabase() throws Exception {
+        Database database = new Database(CLIENTS * STUDENTS_PER_CLIENT);
+
+        try (TrackerServer server = new TrackerServer(database, 0);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.start();
+            int port = server.getPort();
+
+            long registered = runPhase(CLIENTS, executor, client -> {
+                StringBuilder script = new StringBuilder("add students\n");
+                for (int i = 0; i < STUDENTS_PER_CLIENT; i++) {
+                    script.append("First Last c").append(client).append('s').append(i).append("@example.com\n");
+                }
+                return script.append("back\nexit\n").toString();
+            }, port);
+
+            int students = database.getNumberOfStudents();
+            long firstId = User.getLastId() - students + 1;
+            long[] expectedPoints = new long[database.getNumberOfCourses()];
+
+            long updated = runPhase(CLIENTS, executor, client -> {
+                SplittableRandom random = new SplittableRandom(client);
+                StringBuilder script = new StringBuilder("add points\n");
+                for (int i = 0; i < UPDATES_PER_CLIENT; i++) {
+                    script.append(firstId + random.nextInt(students));
+                    for (int course = 0; course < expectedPoints.length; course++) {
+                        int points = random.nextInt(10);
+                        synchronized (expectedPoints) {
+                            expectedPoints[course] += points;
+                        }
+                        script.append(' ').append(points);
+                    }
+                    script.append('\n');
+                }
+                return script.append("back\nexit\n").toString();
+            }, port);
+
+            assertEquals(CLIENTS * STUDENTS_PER_CLIENT, registered);
+            assertEquals(CLIENTS * STUDENTS_PER_CLIENT, students);
+            assertEquals(CLIENTS * UPDATES_PER_CLIENT, updated);
+
+            for (int course = 0; course < expectedPoints.length; course++) {
+                assertEquals(expectedPoints[course], database.getCourse(course).getTotalPoints());
+            }
+        }
+    }
+
+    private static long runPhase(int clients, ExecutorService executor, ClientScript scripts, int port)
+            throws Exception {
+        List<Future<Integer>> results = new ArrayList<>(clients);
+
+        for (int client = 0; client < clients; client++) {
+            String script = scripts.build(client);
+            results.add(executor.submit(() -> runClient(port, script)));
+        }
+
+        long acknowledged = 0;
+        for (Future<Integer> result : results) {
+            acknowledged += result.get();
+        }
+        return acknowledged;
+    }
+
+    private static int runClient(int port, String script) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            Thread writer = Thread.ofVirtual().start(() -> {
+                try {
+                    Writer out = new BufferedWriter(
+                            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                    out.write(script);
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            int acknowledged = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null && !"Bye!".equals(line)) {
+                if ("The student has been added.".equals(line) || "Points updated".equals(line)) {
+                    acknowledged += 1;
+                }
+            }
+
+            writer.join();
+            return acknowledged;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private interface ClientScript {
+        String build(int client);
+    }
+}
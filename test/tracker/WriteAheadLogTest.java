@@ -0,0 +1,179 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayFromTheEndOfTheLogReadsNothing() throws IOException {
+        Path path = directory.resolve("tracker.wal");
+        WriteAheadLog.open(path, WriteAheadLog.Durability.SYNC).close();
+
+        assertEquals(0, WriteAheadLog.replay(path, new Database(), Files.size(path)));
+    }
+
+    @Test
+    void replayPastTheEndOfTheLogFails() throws IOException {
+        Path path = directory.resolve("tracker.wal");
+        WriteAheadLog.open(path, WriteAheadLog.Durability.SYNC).close();
+
+        assertThrows(IOException.class, () -> WriteAheadLog.replay(path, new Database(), Files.size(path) + 1));
+    }
+
+    @Test
+    void replayOfAMissingLogAfterASnapshotFails() {
+        assertThrows(IOException.class,
+                () -> WriteAheadLog.replay(directory.resolve("missing.wal"), new Database(), 4096));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = WriteAheadLog.Durability.class, names = {"GROUP_COMMIT", "SYNC"})
+    void reopeningReplaysTheWholeState(WriteAheadLog.Durability durability) throws IOException {
+        Path path = directory.resolve("tracker.wal");
+        List<String> expected;
+        long lastId;
+
+        try (Database database = Database.open(path, durability)) {
+            populate(database);
+            expected = state(database);
+            lastId = User.getLastId();
+        }
+
+        try (Database reopened = Database.open(path, durability)) {
+            assertEquals(expected, state(reopened));
+            assertEquals(lastId, User.getLastId());
+
+            User next = reopened.register(Credentials.valid("Next", "Student", "next@example.com"));
+            assertEquals(lastId + 1, next.getId());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = WriteAheadLog.Durability.class, names = {"GROUP_COMMIT", "SYNC"})
+    void aTornRecordAtTheTailIsDropped(WriteAheadLog.Durability durability) throws IOException {
+        Path path = directory.resolve("tracker.wal");
+        List<String> complete;
+        long id;
+
+        try (Database database = Database.open(path, durability)) {
+            populate(database);
+            id = database.getStudentIds().getIds(0, 1).get(0);
+            complete = state(database);
+        }
+
+        long completeSize = Files.size(path);
+
+        try (Database database = Database.open(path, durability)) {
+            database.update(id, new int[] {7, 7, 7, 7});
+        }
+
+        long tornSize = completeSize + (Files.size(path) - completeSize) / 2;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(tornSize);
+        }
+
+        List<String> afterUpdate;
+
+        try (Database reopened = Database.open(path, durability)) {
+            assertEquals(complete, state(reopened));
+            assertEquals(completeSize, Files.size(path));
+
+            reopened.update(id, new int[] {3, 0, 0, 0});
+            afterUpdate = state(reopened);
+            assertNotEquals(complete, afterUpdate);
+        }
+
+        try (Database reopened = Database.open(path, durability)) {
+            assertEquals(afterUpdate, state(reopened));
+        }
+    }
+
+    private static void populate(Database database) throws IOException {
+        Random random = new Random(42);
+        int courses = database.getNumberOfCourses();
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            ids.add(database.register(Credentials.valid("First" + i, "Last Name", "wal" + i + "@example.com")).getId());
+        }
+
+        assertNull(database.register(Credentials.valid("Again", "Student", "WAL0@example.com")));
+
+        for (int i = 0; i < 400; i++) {
+            int[] points = new int[courses];
+
+            for (int course = 0; course < courses; course++) {
+                points[course] = random.nextInt(4) == 0 ? 0 : random.nextInt(300);
+            }
+            database.update(ids.get(random.nextInt(ids.size())), points);
+        }
+
+        PointsBatch batch = new PointsBatch(courses);
+
+        for (int i = 0; i < 300; i++) {
+            int[] points = new int[courses];
+            points[random.nextInt(courses)] = random.nextInt(200);
+            batch.add(ids.get(random.nextInt(ids.size())), points);
+        }
+        database.update(batch);
+
+        assertTrue(database.getOutbox().dispatchAll(notifications -> { }).getMessages() > 0);
+
+        for (int i = 0; i < 100; i++) {
+            int[] points = new int[courses];
+            points[random.nextInt(courses)] = random.nextInt(50);
+            database.update(ids.get(random.nextInt(ids.size())), points);
+        }
+
+        assertTrue(database.getOutbox().getPendingCount() > 0);
+    }
+
+    private static List<String> state(Database database) {
+        List<String> state = new ArrayList<>();
+
+        for (long id : database.getStudentIds().getIds(0, Integer.MAX_VALUE)) {
+            User user = database.getStudent(id);
+            StringBuilder line = new StringBuilder()
+                    .append(user.getId()).append(' ').append(user.getFirstName()).append(' ')
+                    .append(user.getLastName()).append(' ').append(user.getEmail());
+
+            for (int i = 0; i < database.getNumberOfCourses(); i++) {
+                Course course = database.getCourse(i);
+                line.append(' ').append(course.isEnrolled(id) ? String.valueOf(course.getPoints(id)) : "-");
+            }
+            state.add(line.toString());
+        }
+
+        for (int i = 0; i < database.getNumberOfCourses(); i++) {
+            Course course = database.getCourse(i);
+            state.add(course.getName() + " students " + course.getNumberOfStudents()
+                    + " activity " + course.getActivity() + " points " + course.getTotalPoints()
+                    + " pending " + new TreeSet<>(database.getOutbox().getPending(i)));
+        }
+
+        state.add("students " + database.getNumberOfStudents());
+        return state;
+    }
+}